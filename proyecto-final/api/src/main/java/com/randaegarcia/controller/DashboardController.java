@@ -1,55 +1,72 @@
 package com.randaegarcia.controller;
 
-import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.service.CatalogVersion;
 import com.randaegarcia.service.DashboardService;
-import jakarta.ws.rs.GET;
-import jakarta.ws.rs.Path;
-import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDateTime;
 
 @Path("/dashboard")
 @Produces(MediaType.APPLICATION_JSON)
 @RequiredArgsConstructor
 public class DashboardController {
     private final DashboardService dashboardService;
+    private final CatalogVersion catalogVersion;
+
+    @GET
+    @Path("summary")
+    public Response summary(@Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.summary(version)).build());
+    }
 
     @GET
     @Path("movements-per-day")
-    public List<Long> movementsPerDay() {
-        return  dashboardService.movementsPerDay();
+    public Response movementsPerDay(@Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.movementsPerDay(version)).build());
     }
 
     @GET
     @Path("movements-per-category")
-    public Map<String, Long> movementsPerCategory() {
-        return  dashboardService.movementsPerCategory();
+    public Response movementsPerCategory(@Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.movementsPerCategory(version)).build());
     }
 
     @GET
     @Path("most-moved-product")
-    public Map<String, ?> mostMovedProduct() {
-        return  dashboardService.mostMovedProduct();
+    public Response mostMovedProduct(@Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.mostMovedProduct(version)).build());
     }
 
     @GET
     @Path("least-moved-product")
-    public Map<String, ?> leastMovedProduct() {
-        return dashboardService.leastMovedProduct();
+    public Response leastMovedProduct(@Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.leastMovedProduct(version)).build());
     }
 
     @GET
     @Path("most-demanded-category")
-    public Map<String, ?> mostDemandedCategory() {
-        return dashboardService.mostDemandedCategory();
+    public Response mostDemandedCategory(@Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.mostDemandedCategory(version)).build());
     }
 
     @GET
     @Path("least-demanded-category")
-    public Map<String, ?> leastDemandedCategory() {
-        return dashboardService.leastDemandedCategory();
+    public Response leastDemandedCategory(@Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.leastDemandedCategory(version)).build());
+    }
+
+    @GET
+    @Path("products/ranking")
+    public Response productRanking(@QueryParam("order") @DefaultValue("desc") String order,
+                                   @QueryParam("limit") @DefaultValue("5") int limit,
+                                   @QueryParam("from") LocalDateTime from,
+                                   @QueryParam("to") LocalDateTime to,
+                                   @Context Request request) {
+        return catalogVersion.conditional(request, version -> Response.ok(dashboardService.productRanking(version, order, limit, from, to)).build());
     }
 }
@@ -1,18 +1,27 @@
 package com.randaegarcia.controller;
 
 import com.randaegarcia.domain.dto.ProductoListRequestDto;
+import com.randaegarcia.domain.dto.StockMovementBatchItemDto;
 import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.service.CatalogVersion;
+import com.randaegarcia.service.ExportService;
+import com.randaegarcia.service.ProductoImportService;
 import com.randaegarcia.service.ProductoService;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 
+import java.io.InputStream;
+import java.util.List;
+
 @Slf4j
 @Path("/productos")
 @Produces(MediaType.APPLICATION_JSON)
@@ -20,20 +29,53 @@ import org.eclipse.microprofile.jwt.JsonWebToken;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final ExportService exportService;
+    private final ProductoImportService productoImportService;
+    private final CatalogVersion catalogVersion;
 
     @GET
     public Response findAll(@QueryParam("page") @DefaultValue("0") int page,  @QueryParam("size") @DefaultValue("10") int size,
                             @QueryParam("name") @DefaultValue("") String name, @QueryParam("category") @DefaultValue("") String category,
-                            @QueryParam("minPrice") @DefaultValue("0")  double minPrice, @QueryParam("maxPrice") @DefaultValue("-1") double maxPrice) {
+                            @QueryParam("minPrice") @DefaultValue("0")  double minPrice, @QueryParam("maxPrice") @DefaultValue("-1") double maxPrice,
+                            @QueryParam("after") Long after, @Context Request request) {
+
+        ProductoListRequestDto requestDto = new ProductoListRequestDto(page, size, name, category, minPrice, maxPrice, after);
+        return catalogVersion.conditional(request, () -> productoService.findAll(requestDto));
+    }
 
-        ProductoListRequestDto requestDto = new ProductoListRequestDto(page, size, name, category, minPrice, maxPrice);
-        return productoService.findAll(requestDto);
+    @GET
+    @Path("export")
+    @Produces({ExportService.NDJSON, ExportService.CSV})
+    public Response export(@QueryParam("format") @DefaultValue("ndjson") String format) {
+        return exportService.exportProductos(format);
+    }
+
+    @GET
+    @Path("suggest")
+    public Response suggest(@QueryParam("q") @DefaultValue("") String q,
+                            @QueryParam("limit") @DefaultValue("10") int limit,
+                            @Context Request request) {
+        return productoService.suggest(q, limit, request);
+    }
+
+    @POST
+    @Path("import")
+    @Consumes(ExportService.CSV)
+    public Response importCsv(InputStream body) {
+        return productoImportService.importCsv(body);
+    }
+
+    @POST
+    @Path("import")
+    @Consumes(ExportService.NDJSON)
+    public Response importNdjson(InputStream body) {
+        return productoImportService.importNdjson(body);
     }
 
     @GET
     @Path("{id}")
-    public Producto findProductoById(@PathParam("id") Long id) {
-        return productoService.findById(id);
+    public Response findProductoById(@PathParam("id") Long id, @Context Request request) {
+        return productoService.findById(id, request);
     }
 
     @POST
@@ -45,8 +87,8 @@ public class ProductoController {
 
     @PUT
     @Transactional
-    public Response update(@NotNull @Valid Producto producto) {
-        return productoService.update(producto);
+    public Response update(@NotNull @Valid Producto producto, @HeaderParam("If-Match") String ifMatch) {
+        return productoService.update(producto, ifMatch);
     }
 
     @Path("{id}")
@@ -60,8 +102,17 @@ public class ProductoController {
     @GET
     public Response findProductoHistory(@NotNull @PathParam("id") Long id,
                                         @QueryParam("page") @DefaultValue("0") int page,
-                                        @QueryParam("size") @DefaultValue("10") int size) {
-        return productoService.getQuantityHistory(id, page, size);
+                                        @QueryParam("size") @DefaultValue("10") int size,
+                                        @QueryParam("before") String before) {
+        return productoService.getQuantityHistory(id, page, size, before);
+    }
+
+    @Path("{id}/revisions")
+    @GET
+    public Response findProductoRevisions(@NotNull @PathParam("id") Long id,
+                                          @QueryParam("size") @DefaultValue("10") int size,
+                                          @QueryParam("before") Integer before) {
+        return productoService.getRevisions(id, size, before);
     }
 
     @Path("{id}/update-quantity")
@@ -70,4 +121,12 @@ public class ProductoController {
     public Response updateProductoQuantity(@NotNull @PathParam("id") Long idProducto, @NotNull @QueryParam("quantity") Long quantity) {
         return productoService.updateQuantity(idProducto, quantity);
     }
+
+    @Path("stock-movements:batch")
+    @POST
+    @Transactional
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response applyStockMovements(@NotNull @Valid List<StockMovementBatchItemDto> items) {
+        return productoService.applyStockMovements(items);
+    }
 }
@@ -0,0 +1,51 @@
+package com.randaegarcia.controller;
+
+import com.randaegarcia.domain.dto.ProductoListRequestDto;
+import com.randaegarcia.service.ProductoReactiveService;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mismas lecturas que {@link ProductoController} sobre el cliente reactivo de Postgres. Solo existe
+ * si se compila con {@code productos.reactive-read.enabled=true}.
+ */
+@Path("/reactive/productos")
+@Produces(MediaType.APPLICATION_JSON)
+@RequiredArgsConstructor
+@IfBuildProperty(name = "productos.reactive-read.enabled", stringValue = "true")
+public class ProductoReactiveController {
+
+    private final ProductoReactiveService productoReactiveService;
+
+    @GET
+    public Uni<Response> findAll(@QueryParam("page") @DefaultValue("0") int page, @QueryParam("size") @DefaultValue("10") int size,
+                                 @QueryParam("name") @DefaultValue("") String name, @QueryParam("category") @DefaultValue("") String category,
+                                 @QueryParam("minPrice") @DefaultValue("0") double minPrice, @QueryParam("maxPrice") @DefaultValue("-1") double maxPrice,
+                                 @QueryParam("after") Long after, @Context Request request) {
+
+        ProductoListRequestDto requestDto = new ProductoListRequestDto(page, size, name, category, minPrice, maxPrice, after);
+        return productoReactiveService.findAll(requestDto, request);
+    }
+
+    @GET
+    @Path("{id}")
+    public Uni<Response> findProductoById(@PathParam("id") Long id, @Context Request request) {
+        return productoReactiveService.findById(id, request);
+    }
+
+    @Path("{id}/history")
+    @GET
+    public Uni<Response> findProductoHistory(@NotNull @PathParam("id") Long id,
+                                             @QueryParam("page") @DefaultValue("0") int page,
+                                             @QueryParam("size") @DefaultValue("10") int size,
+                                             @QueryParam("before") String before) {
+        return productoReactiveService.getQuantityHistory(id, page, size, before);
+    }
+}
@@ -0,0 +1,19 @@
+package com.randaegarcia.controller;
+
+import com.randaegarcia.service.ExportService;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Response;
+import lombok.RequiredArgsConstructor;
+
+@Path("/stock-movements")
+@RequiredArgsConstructor
+public class StockMovementController {
+    private final ExportService exportService;
+
+    @GET
+    @Path("export")
+    @Produces({ExportService.NDJSON, ExportService.CSV})
+    public Response export(@QueryParam("format") @DefaultValue("ndjson") String format) {
+        return exportService.exportStockMovements(format);
+    }
+}
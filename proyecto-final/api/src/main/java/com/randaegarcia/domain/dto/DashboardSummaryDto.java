@@ -0,0 +1,13 @@
+package com.randaegarcia.domain.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record DashboardSummaryDto(
+        List<Long> movementsPerDay,
+        Map<String, Long> movementsPerCategory,
+        Map<String, ?> mostMovedProduct,
+        Map<String, ?> leastMovedProduct,
+        Map<String, ?> mostDemandedCategory,
+        Map<String, ?> leastDemandedCategory
+) { }
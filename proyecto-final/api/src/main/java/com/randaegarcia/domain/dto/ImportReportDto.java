@@ -0,0 +1,8 @@
+package com.randaegarcia.domain.dto;
+
+import java.util.List;
+
+public record ImportReportDto(long received, long imported, long rejected, List<RowError> errors) {
+
+    public record RowError(long row, String name, List<String> messages) { }
+}
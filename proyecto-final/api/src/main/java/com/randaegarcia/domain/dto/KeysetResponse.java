@@ -0,0 +1,13 @@
+package com.randaegarcia.domain.dto;
+
+import java.util.List;
+
+/**
+ * Pagina sin total ni numero de pagina: la siguiente se pide con {@code nextCursor}, que es null
+ * en la ultima.
+ */
+public record KeysetResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) { }
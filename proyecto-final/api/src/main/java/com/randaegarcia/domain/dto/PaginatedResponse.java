@@ -21,6 +21,7 @@ public class PaginatedResponse<T> {
     private boolean last;
     private boolean empty;
     private int numberOfElements;
+    private String nextCursor;
 
     public static <T> PaginatedResponse<T> of(List<T> content, int page, int size, long totalElements) {
         int totalPages = (int) Math.ceil((double) totalElements / size);
@@ -37,4 +38,11 @@ public class PaginatedResponse<T> {
                 .numberOfElements(content.size())
                 .build();
     }
+
+    public static <T> PaginatedResponse<T> of(List<T> content, int page, int size, long totalElements, String nextCursor) {
+        PaginatedResponse<T> response = of(content, page, size, totalElements);
+        response.setNextCursor(nextCursor);
+        response.setLast(nextCursor == null);
+        return response;
+    }
 }
@@ -1,3 +1,3 @@
 package com.randaegarcia.domain.dto;
 
-public record ProductDashboardDto() {}
+public record ProductDashboardDto(Long id, String name, Long quantity) {}
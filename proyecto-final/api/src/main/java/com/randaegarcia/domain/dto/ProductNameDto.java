@@ -0,0 +1,3 @@
+package com.randaegarcia.domain.dto;
+
+public record ProductNameDto(Long id, String name) { }
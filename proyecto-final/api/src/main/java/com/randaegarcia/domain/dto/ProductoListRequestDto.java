@@ -1,3 +1,3 @@
 package com.randaegarcia.domain.dto;
 
-public record ProductoListRequestDto(int page, int size, String name, String category, double minPrice, double maxPrice) { }
+public record ProductoListRequestDto(int page, int size, String name, String category, double minPrice, double maxPrice, Long after) { }
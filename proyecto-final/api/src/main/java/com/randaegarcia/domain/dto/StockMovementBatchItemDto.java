@@ -0,0 +1,5 @@
+package com.randaegarcia.domain.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record StockMovementBatchItemDto(@NotNull Long productId, @NotNull Long delta) { }
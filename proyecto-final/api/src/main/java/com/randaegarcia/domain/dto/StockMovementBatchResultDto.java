@@ -0,0 +1,10 @@
+package com.randaegarcia.domain.dto;
+
+public record StockMovementBatchResultDto(Long productId, Long delta, Status status, Long quantity) {
+
+    public enum Status {
+        APPLIED,
+        NOT_FOUND,
+        MINIMUM_STOCK_EXCEEDED
+    }
+}
@@ -0,0 +1,22 @@
+package com.randaegarcia.domain.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id tomado de una secuencia de Postgres en bloques pedidos desde la aplicacion. El tamano del
+ * bloque se lee de {@code id.prefetch.<sequence>} y si no esta configurado se usa {@link #blockSize()}.
+ */
+@IdGeneratorType(PrefetchedSequenceGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrefetchedSequence {
+
+    String sequence();
+
+    int blockSize() default 50;
+}
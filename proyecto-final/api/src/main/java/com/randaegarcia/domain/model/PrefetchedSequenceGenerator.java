@@ -0,0 +1,69 @@
+package com.randaegarcia.domain.model;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pide a la secuencia un bloque de valores en un solo viaje
+ * ({@code select nextval(...) from generate_series(1, n)}) y los entrega desde memoria. La
+ * secuencia avanza de a uno, asi que cada valor lo usa una sola vez quien lo pidio, sea este
+ * generador o un INSERT nativo con nextval; al reiniciar solo se pierden los valores que
+ * quedaban en el bloque.
+ */
+public class PrefetchedSequenceGenerator implements IdentifierGenerator {
+    private final String sequence;
+    private final int defaultBlockSize;
+    private final Deque<Long> prefetched = new ArrayDeque<>();
+    private String sql;
+
+    public PrefetchedSequenceGenerator(PrefetchedSequence config) {
+        this.sequence = config.sequence();
+        this.defaultBlockSize = config.blockSize();
+    }
+
+    @Override
+    public synchronized Object generate(SharedSessionContractImplementor session, Object object) {
+        if (prefetched.isEmpty()) {
+            prefetch(session);
+        }
+        return prefetched.removeFirst();
+    }
+
+    private void prefetch(SharedSessionContractImplementor session) {
+        if (sql == null) {
+            int blockSize = ConfigProvider.getConfig()
+                    .getOptionalValue("id.prefetch." + sequence, Integer.class)
+                    .orElse(defaultBlockSize);
+            if (blockSize < 1) {
+                throw new IllegalStateException("id.prefetch." + sequence + " debe ser mayor que 0");
+            }
+            sql = "select nextval('" + sequence + "') from generate_series(1, " + blockSize + ") order by 1";
+        }
+
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            ResultSet resultSet = jdbc.getResultSetReturn().extract(statement, sql);
+            while (resultSet.next()) {
+                prefetched.addLast(resultSet.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw new IdentifierGenerationException("No se pudieron obtener ids de " + sequence, e);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+        if (prefetched.isEmpty()) {
+            throw new IdentifierGenerationException("La secuencia " + sequence + " no devolvio valores");
+        }
+    }
+}
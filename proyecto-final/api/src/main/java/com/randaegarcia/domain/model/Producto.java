@@ -1,11 +1,13 @@
 package com.randaegarcia.domain.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -20,7 +22,11 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Audited
-public class Producto extends PanacheEntity {
+public class Producto extends PanacheEntityBase {
+
+    @Id
+    @PrefetchedSequence(sequence = "producto_seq")
+    public Long id;
 
     @NotNull
     @Size(min = 3, max = 100)
@@ -63,6 +69,10 @@ public class Producto extends PanacheEntity {
     @Column(name = "is_active", nullable = false)
     public Boolean isActive;
 
+    @Version
+    @Column(nullable = false)
+    public Long version;
+
     public static List<Producto> findAllPaginated(int page, int size) {
         return find("isActive = true order by id desc")
                 .page(page, size)
@@ -1,7 +1,9 @@
 package com.randaegarcia.domain.model;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -16,8 +18,11 @@ import java.time.LocalDateTime;
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class StockMovement extends PanacheEntity {
-    @ManyToOne
+public class StockMovement extends PanacheEntityBase {
+    @Id
+    @PrefetchedSequence(sequence = "stock_movements_seq", blockSize = 500)
+    public Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
     public Producto producto;
     public String username;
     public LocalDateTime date;
@@ -1,5 +1,6 @@
 package com.randaegarcia.exception;
 
+import jakarta.persistence.OptimisticLockException;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -19,6 +20,13 @@ public class GlobalExceptionMapper implements ExceptionMapper<Throwable> {
                     .build();
         }
 
+        if (exception instanceof OptimisticLockException) {
+            return Response
+                    .status(Response.Status.CONFLICT)
+                    .entity(new ErrorResponse("El recurso fue modificado por otro usuario", Response.Status.CONFLICT.getStatusCode()))
+                    .build();
+        }
+
         if (exception instanceof NotFoundException){
             return Response
                     .status(Response.Status.NOT_FOUND)
@@ -0,0 +1,36 @@
+package com.randaegarcia.observability;
+
+import io.quarkus.arc.Arc;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Estadisticas de Hibernate que ademas pasan cada consulta ejecutada a {@link QueryDiagnostics}.
+ * Hibernate llama a {@link #queryExecuted} con las filas y el tiempo de toda consulta HQL,
+ * criteria o nativa que devuelve una lista, venga de Panache o del EntityManager, asi que una
+ * consulta nueva queda cubierta sin instrumentarla. Los resultados en stream no informan filas
+ * (llegan como -1) y solo se revisa su tiempo.
+ */
+public class DiagnosticStatistics extends StatisticsImpl {
+    private volatile QueryDiagnostics diagnostics;
+
+    public DiagnosticStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        diagnostics().checkQuery(hql, rows, time);
+    }
+
+    /**
+     * Hibernate crea las estadisticas fuera de CDI; el bean se busca en la primera consulta.
+     */
+    private QueryDiagnostics diagnostics() {
+        if (diagnostics == null) {
+            diagnostics = Arc.container().instance(QueryDiagnostics.class).get();
+        }
+        return diagnostics;
+    }
+}
@@ -0,0 +1,16 @@
+package com.randaegarcia.observability;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Registrada en {@code hibernate.stats.factory} para que Hibernate use {@link DiagnosticStatistics}.
+ */
+public class DiagnosticStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new DiagnosticStatistics(sessionFactory);
+    }
+}
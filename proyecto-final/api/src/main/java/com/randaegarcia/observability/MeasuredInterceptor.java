@@ -0,0 +1,57 @@
+package com.randaegarcia.observability;
+
+import io.quarkus.arc.Arc;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+@Measured
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class MeasuredInterceptor {
+
+    @Inject
+    ServiceMetrics metrics;
+
+    @Inject
+    EntityManager em;
+
+    @AroundInvoke
+    Object measure(InvocationContext context) throws Exception {
+        String service = context.getMethod().getDeclaringClass().getSimpleName();
+        String method = context.getMethod().getName();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = context.proceed();
+        } catch (Exception e) {
+            // Una violacion detectada al registrar no debe ocultar la excepcion original
+            try {
+                metrics.recordCall(service, method, e.getClass().getSimpleName(), System.nanoTime() - start, managedEntities());
+            } catch (RuntimeException violation) {
+                e.addSuppressed(violation);
+            }
+            throw e;
+        }
+        metrics.recordCall(service, method, "ok", System.nanoTime() - start, managedEntities());
+        return result;
+    }
+
+    /**
+     * Entidades en el contexto de persistencia de la peticion; -1 si no hay sesion abierta.
+     */
+    private long managedEntities() {
+        if (!Arc.container().requestContext().isActive()) {
+            return -1;
+        }
+        try {
+            return em.unwrap(Session.class).getStatistics().getEntityCount();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
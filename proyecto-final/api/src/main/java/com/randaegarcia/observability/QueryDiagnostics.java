@@ -0,0 +1,138 @@
+package com.randaegarcia.observability;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Detecta consultas que devuelven mas de {@code diagnostics.max-rows} filas, metodos que dejan mas
+ * entidades que eso en el contexto de persistencia y consultas o metodos que tardan mas de
+ * {@code diagnostics.slow-threshold}. En los perfiles dev y test las consultas de Hibernate llegan
+ * todas por {@link DiagnosticStatistics}; las del cliente reactivo, por {@link #checkRows}. Cada caso se
+ * registra en el log con el punto del codigo que lo origino y suma al contador
+ * {@code app.diagnostics.violations}. Con {@code diagnostics.fail-on-violation=true} (perfil de
+ * test) los recorridos completos lanzan una excepcion para que el test que los provoca falle; la
+ * latencia nunca falla, solo se registra. Las lecturas completas intencionales van dentro de
+ * {@link #fullRead}.
+ */
+@Slf4j
+@ApplicationScoped
+public class QueryDiagnostics {
+    private static final Set<String> INFRASTRUCTURE = Set.of(QueryDiagnostics.class.getName(), ServiceMetrics.class.getName(),
+            MeasuredInterceptor.class.getName(), DiagnosticStatistics.class.getName());
+    private static final ThreadLocal<Boolean> FULL_READ = ThreadLocal.withInitial(() -> false);
+    private static final AttributeKey<String> KIND = AttributeKey.stringKey("kind");
+    private static final AttributeKey<String> SITE = AttributeKey.stringKey("site");
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @ConfigProperty(name = "diagnostics.max-rows", defaultValue = "10000")
+    long maxRows;
+
+    @ConfigProperty(name = "diagnostics.slow-threshold", defaultValue = "500ms")
+    Duration slowThreshold;
+
+    @ConfigProperty(name = "diagnostics.fail-on-violation", defaultValue = "false")
+    boolean failOnViolation;
+
+    private final AtomicLong violations = new AtomicLong();
+    private LongCounter counter;
+
+    @PostConstruct
+    void init() {
+        counter = openTelemetry.getMeter("com.randaegarcia.api")
+                .counterBuilder("app.diagnostics.violations")
+                .setDescription("Consultas o metodos que superaron los umbrales de filas o latencia")
+                .build();
+    }
+
+    /**
+     * Ejecuta una lectura completa intencional, como la recarga del indice de nombres: sus
+     * consultas no cuentan como violacion por filas, solo por tiempo.
+     */
+    public <T> T fullRead(Supplier<T> read) {
+        if (FULL_READ.get()) {
+            return read.get();
+        }
+        FULL_READ.set(true);
+        try {
+            return read.get();
+        } finally {
+            FULL_READ.remove();
+        }
+    }
+
+    /**
+     * Filas devueltas por una consulta que no pasa por Hibernate.
+     */
+    public void checkRows(String query, long rows) {
+        if (rows > maxRows && !FULL_READ.get()) {
+            String site = callSite();
+            violation("rows", site, "La consulta %s devolvio %d filas (maximo %d) en %s".formatted(query, rows, maxRows, site), true);
+        }
+    }
+
+    /**
+     * Cada consulta de Hibernate con sus filas (-1 si es un stream) y su tiempo en milisegundos.
+     */
+    void checkQuery(String query, int rows, long millis) {
+        checkRows(query, rows);
+        if (millis > slowThreshold.toMillis()) {
+            String site = callSite();
+            violation("query-duration", site, "La consulta %s tardo %d ms (umbral %d ms) en %s".formatted(query, millis, slowThreshold.toMillis(), site), false);
+        }
+    }
+
+    void checkCall(String service, String method, long nanos, long entities) {
+        String site = service + "." + method;
+        if (entities > maxRows) {
+            violation("entities", site, "%s dejo %d entidades en el contexto de persistencia (maximo %d)".formatted(site, entities, maxRows), true);
+        }
+        if (nanos > slowThreshold.toNanos()) {
+            violation("duration", site, "%s tardo %d ms (umbral %d ms)".formatted(site, nanos / 1_000_000, slowThreshold.toMillis()), false);
+        }
+    }
+
+    /**
+     * Total de violaciones desde el arranque, para tests y diagnostico manual.
+     */
+    public long violations() {
+        return violations.get();
+    }
+
+    private void violation(String kind, String site, String message, boolean fatal) {
+        violations.incrementAndGet();
+        counter.add(1, Attributes.of(KIND, kind, SITE, site));
+        log.warn(message);
+        if (fatal && failOnViolation) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * El punto de origen es el primer frame de la aplicacion fuera de los diagnosticos y de las
+     * subclases generadas por Arc; los frames de Hibernate y Panache se saltan.
+     */
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.randaegarcia."))
+                .filter(frame -> !INFRASTRUCTURE.contains(frame.getClassName()))
+                .filter(frame -> !frame.getClassName().contains("_Subclass") && !frame.getClassName().contains("_ClientProxy"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.randaegarcia.observability;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Metricas de dominio exportadas por OpenTelemetry:
+ * <ul>
+ *     <li>{@code app.service.duration}: latencia por servicio, metodo y resultado</li>
+ *     <li>{@code app.service.entities}: entidades en el contexto de persistencia al terminar el metodo</li>
+ *     <li>{@code app.query.rows_returned}: filas que devolvio cada consulta instrumentada; no son las
+ *     que Postgres recorrio para obtenerlas (un filtro que hace seq scan sobre un millon de filas
+ *     y devuelve una pagina registra el tamano de la pagina)</li>
+ *     <li>{@code app.stock_movements.written}: movimientos de inventario confirmados</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class ServiceMetrics {
+    private static final AttributeKey<String> SERVICE = AttributeKey.stringKey("service");
+    private static final AttributeKey<String> METHOD = AttributeKey.stringKey("method");
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> QUERY = AttributeKey.stringKey("query");
+    private static final AttributeKey<String> SOURCE = AttributeKey.stringKey("source");
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    QueryDiagnostics diagnostics;
+
+    private DoubleHistogram duration;
+    private LongHistogram entities;
+    private LongHistogram rows;
+    private LongCounter stockMovements;
+
+    @PostConstruct
+    void init() {
+        Meter meter = openTelemetry.getMeter("com.randaegarcia.api");
+        duration = meter.histogramBuilder("app.service.duration")
+                .setDescription("Latencia de los metodos de servicio")
+                .setUnit("ms")
+                .build();
+        entities = meter.histogramBuilder("app.service.entities")
+                .setDescription("Entidades en el contexto de persistencia al terminar el metodo")
+                .ofLongs()
+                .build();
+        rows = meter.histogramBuilder("app.query.rows_returned")
+                .setDescription("Filas devueltas por consulta")
+                .ofLongs()
+                .build();
+        stockMovements = meter.counterBuilder("app.stock_movements.written")
+                .setDescription("Movimientos de inventario confirmados")
+                .build();
+    }
+
+    void recordCall(String service, String method, String outcome, long nanos, long managedEntities) {
+        Attributes attributes = Attributes.of(SERVICE, service, METHOD, method, OUTCOME, outcome);
+        duration.record(nanos / 1_000_000.0, attributes);
+        if (managedEntities >= 0) {
+            entities.record(managedEntities, Attributes.of(SERVICE, service, METHOD, method));
+        }
+        diagnostics.checkCall(service, method, nanos, managedEntities);
+    }
+
+    /**
+     * Filas que devolvio la consulta, por ejemplo el tamano de la pagina leida. Solo alimenta la
+     * metrica: los umbrales los revisa {@link QueryDiagnostics}.
+     */
+    public void recordRows(String query, long count) {
+        rows.record(count, Attributes.of(QUERY, query));
+    }
+
+    /**
+     * Cuenta los movimientos cuando la transaccion confirma, para que un rollback no los sume.
+     */
+    public void stockMovementsWritten(String source, long count) {
+        if (count <= 0) {
+            return;
+        }
+        Attributes attributes = Attributes.of(SOURCE, source);
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            stockMovements.add(count, attributes);
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    stockMovements.add(count, attributes);
+                }
+            }
+        });
+    }
+}
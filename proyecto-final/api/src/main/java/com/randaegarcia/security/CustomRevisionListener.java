@@ -1,39 +1,58 @@
 package com.randaegarcia.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.security.identity.SecurityIdentity;
 import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
 import io.vertx.ext.web.RoutingContext;
 import org.hibernate.envers.RevisionListener;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
 import java.util.Base64;
 
 public class CustomRevisionListener implements RevisionListener {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Usernames ya extraidos por token, para no decodificar el mismo JWT en cada revision.
+     * Los tokens de acceso son de corta duracion, asi que basta con un cache pequeno.
+     */
+    private static final Cache<String, String> usernamesByToken = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
     @Override
     public void newRevision(Object revisionEntity) {
         CustomRevisionEntity revision = (CustomRevisionEntity) revisionEntity;
 
         try {
-            CurrentVertxRequest currentRequest = Arc.container()
-                    .instance(CurrentVertxRequest.class).get();
+            ArcContainer container = Arc.container();
+            if (!container.requestContext().isActive()) {
+                // No hay contexto HTTP - operación interna o batch
+                revision.setUsername("SYSTEM");
+                return;
+            }
 
-            RoutingContext routingContext = currentRequest.getCurrent();
+            // Quarkus ya verifico el token y construyo la identidad de la peticion
+            SecurityIdentity identity = container.instance(SecurityIdentity.class).get();
+            if (identity != null && !identity.isAnonymous()) {
+                revision.setUsername(identity.getPrincipal().getName());
+                return;
+            }
 
-            if (routingContext != null) {
-                String authHeader = routingContext.request().getHeader("Authorization");
+            RoutingContext routingContext = container.instance(CurrentVertxRequest.class).get().getCurrent();
+            String authHeader = routingContext != null ? routingContext.request().getHeader("Authorization") : null;
 
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    String username = extractUsernameFromJwt(authHeader.substring(7));
-                    revision.setUsername(username);
-                } else {
-                    // No hay token de autenticación - operación del sistema
-                    revision.setUsername("SYSTEM");
-                }
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                revision.setUsername(usernameFromToken(authHeader.substring(7)));
             } else {
-                // No hay contexto HTTP - operación interna o batch
+                // No hay token de autenticación - operación del sistema
                 revision.setUsername("SYSTEM");
             }
 
@@ -42,10 +61,17 @@ public class CustomRevisionListener implements RevisionListener {
         }
     }
 
+    /**
+     * Devuelve el username del token usando el cache acotado, decodificandolo solo la primera vez
+     */
+    public String usernameFromToken(String jwt) {
+        return usernamesByToken.get(jwt, this::extractUsernameFromJwt);
+    }
+
     /**
      * Este metodo extrae únicamente el username del JWT token
      */
-    private String extractUsernameFromJwt(String jwt) {
+    public String extractUsernameFromJwt(String jwt) {
         try {
             String[] jwtParts = jwt.split("\\.");
             if (jwtParts.length != 3) {
@@ -0,0 +1,119 @@
+package com.randaegarcia.service;
+
+import com.randaegarcia.security.CustomRevisionEntity;
+import com.randaegarcia.security.CustomRevisionListener;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.RevisionType;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Captura de cambios de productos para el modo de auditoria asincrono. En lugar de que Envers
+ * escriba revinfo y producto_aud dentro de la peticion, se copia la fila actual del producto a
+ * audit_outbox en la misma transaccion y {@link AuditOutboxWorker} la pasa despues a las tablas
+ * de auditoria. En modo sincrono Envers audita como siempre, salvo los cambios hechos con SQL
+ * nativo (ver {@link #recordNative}).
+ */
+@ApplicationScoped
+public class AuditOutbox {
+
+    public enum Mode {
+        SYNC, ASYNC
+    }
+
+    private static final CustomRevisionListener revisionListener = new CustomRevisionListener();
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "audit.mode", defaultValue = "sync")
+    Mode mode;
+
+    @ConfigProperty(name = "quarkus.hibernate-envers.active", defaultValue = "true")
+    boolean enversActive;
+
+    public boolean isAsync() {
+        return mode == Mode.ASYNC;
+    }
+
+    public void record(Long productoId, RevisionType revisionType) {
+        record(List.of(productoId), revisionType);
+    }
+
+    /**
+     * Guarda la imagen actual de los productos indicados. La consulta nativa hace flush de los
+     * cambios pendientes, asi que la fila copiada es la que se va a confirmar.
+     */
+    public void record(Collection<Long> productoIds, RevisionType revisionType) {
+        if (!isAsync() || productoIds.isEmpty()) {
+            return;
+        }
+        em.createNativeQuery("""
+                        INSERT INTO audit_outbox (revtype, revtstmp, username, producto_id, name, description, category,
+                                                  price, cost, profit, quantity, is_active, minimum_stock)
+                        SELECT :revtype, :revtstmp, :username, id, name, description, category,
+                               price, cost, profit, quantity, is_active, minimum_stock
+                        FROM producto
+                        WHERE id IN :ids
+                        ORDER BY id
+                        """)
+                .setParameter("revtype", revisionType.getRepresentation().shortValue())
+                .setParameter("revtstmp", System.currentTimeMillis())
+                .setParameter("username", currentUsername())
+                .setParameter("ids", productoIds)
+                .executeUpdate();
+    }
+
+    public void recordNative(Long productoId, RevisionType revisionType) {
+        recordNative(List.of(productoId), revisionType);
+    }
+
+    /**
+     * Audita productos modificados con SQL nativo, que Envers no ve. En modo asincrono van al
+     * outbox como cualquier otro cambio; en modo sincrono la fila de producto_aud se agrega a la
+     * revision de Envers de la transaccion actual, que se crea si aun no existe. Solo debe usarse
+     * con productos que la transaccion no modifica ademas por medio de Hibernate, porque Envers
+     * agregaria su propia fila en la misma revision.
+     */
+    public void recordNative(Collection<Long> productoIds, RevisionType revisionType) {
+        if (productoIds.isEmpty()) {
+            return;
+        }
+        if (isAsync()) {
+            record(productoIds, revisionType);
+            return;
+        }
+        if (!enversActive) {
+            return;
+        }
+        CustomRevisionEntity revision = AuditReaderFactory.get(em).getCurrentRevision(CustomRevisionEntity.class, true);
+        // producto_aud referencia revinfo, asi que la revision tiene que estar escrita antes
+        em.flush();
+        em.createNativeQuery("""
+                        INSERT INTO producto_aud (rev, revtype, id, name, description, category, price, cost, profit,
+                                                  quantity, is_active, minimum_stock)
+                        SELECT :rev, :revtype, id, name, description, category, price, cost, profit,
+                               quantity, is_active, minimum_stock
+                        FROM producto
+                        WHERE id IN :ids
+                        """)
+                .setParameter("rev", revision.getRev())
+                .setParameter("revtype", revisionType.getRepresentation().shortValue())
+                .setParameter("ids", productoIds)
+                .executeUpdate();
+    }
+
+    /**
+     * Mismo username que pondria Envers en revinfo.
+     */
+    private static String currentUsername() {
+        CustomRevisionEntity revision = new CustomRevisionEntity();
+        revisionListener.newRevision(revision);
+        return revision.getUsername();
+    }
+}
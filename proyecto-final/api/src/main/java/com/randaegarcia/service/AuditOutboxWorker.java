@@ -0,0 +1,140 @@
+package com.randaegarcia.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pasa los eventos de audit_outbox a revinfo y producto_aud en lotes. Cada lote se borra del
+ * outbox y se inserta en las tablas de auditoria con una sola sentencia, asi que un reinicio a
+ * mitad de camino deja los eventos pendientes en el outbox y se procesan al volver a arrancar.
+ * Cada evento recibe su propia revision tomada de revinfo_seq; en modo asincrono Envers esta
+ * inactivo y no reserva valores de esa secuencia.
+ */
+@Slf4j
+@ApplicationScoped
+public class AuditOutboxWorker {
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    AuditOutbox auditOutbox;
+
+    @ConfigProperty(name = "audit.async.poll-interval", defaultValue = "1S")
+    Duration pollInterval;
+
+    @ConfigProperty(name = "audit.async.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "quarkus.hibernate-envers.active", defaultValue = "true")
+    boolean enversActive;
+
+    private ScheduledExecutorService executor;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!auditOutbox.isAsync()) {
+            return;
+        }
+        if (enversActive) {
+            throw new IllegalStateException("audit.mode=async requiere quarkus.hibernate-envers.active=false");
+        }
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        stop();
+    }
+
+    /**
+     * Arranca el ciclo de procesamiento; el primer lote se toma de inmediato, asi que lo que
+     * quedo en el outbox antes de un reinicio se audita al arrancar.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-outbox-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drainSafely, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene el ciclo y procesa lo pendiente una ultima vez.
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        drainSafely();
+    }
+
+    /**
+     * Procesa lotes hasta vaciar el outbox y devuelve cuantos eventos se auditaron.
+     */
+    public int drain() {
+        int total = 0;
+        int moved;
+        do {
+            moved = QuarkusTransaction.requiringNew().call(this::moveBatch);
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private void drainSafely() {
+        try {
+            int moved = drain();
+            if (moved > 0) {
+                log.debug("Auditados {} eventos del outbox", moved);
+            }
+        } catch (Exception e) {
+            log.error("Error al procesar audit_outbox, se reintentara en el siguiente ciclo", e);
+        }
+    }
+
+    private int moveBatch() {
+        return em.createNativeQuery("""
+                        WITH batch AS (
+                            DELETE FROM audit_outbox
+                            WHERE id IN (SELECT id FROM audit_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)
+                            RETURNING *
+                        ), numbered AS (
+                            -- Las revisiones se numeran en el orden del outbox, no en el que DELETE devuelve las filas
+                            SELECT CAST(nextval('revinfo_seq') AS INTEGER) AS rev, b.*
+                            FROM (SELECT * FROM batch ORDER BY id) b
+                        ), revisions AS (
+                            INSERT INTO revinfo (rev, revtstmp, username)
+                            SELECT rev, revtstmp, username FROM numbered
+                        )
+                        INSERT INTO producto_aud (rev, revtype, id, name, description, category, price, cost, profit,
+                                                  quantity, is_active, minimum_stock)
+                        SELECT rev, revtype, producto_id, name, description, category, price, cost, profit,
+                               quantity, is_active, minimum_stock
+                        FROM numbered
+                        """)
+                .setParameter("limit", batchSize)
+                .executeUpdate();
+    }
+}
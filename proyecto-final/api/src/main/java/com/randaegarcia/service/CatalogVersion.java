@@ -0,0 +1,56 @@
+package com.randaegarcia.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * ETag de las lecturas de productos y del dashboard a partir de catalog_version, que los triggers
+ * de producto y stock_movements incrementan en la misma transaccion que cada escritura. La version
+ * se lee antes que los datos: si una escritura confirma entre ambas lecturas, la respuesta lleva la
+ * version anterior y el siguiente GET condicional simplemente vuelve a responder 200.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+public class CatalogVersion {
+    private final EntityManager em;
+
+    public long current() {
+        return ((Number) em.createNativeQuery("SELECT SUM(version) FROM catalog_version").getSingleResult()).longValue();
+    }
+
+    /**
+     * Responde 304 si el cliente ya tiene la version actual; si no, construye la respuesta y le
+     * agrega el ETag.
+     */
+    public Response conditional(Request request, Supplier<Response> response) {
+        return conditional(request, version -> response.get());
+    }
+
+    /**
+     * Igual que {@link #conditional(Request, Supplier)}, pero le pasa a la respuesta la version
+     * con la que se construyo el ETag, para que un cache pueda guardar el cuerpo bajo esa misma version.
+     */
+    public Response conditional(Request request, LongFunction<Response> response) {
+        long version = current();
+        EntityTag etag = new EntityTag(Long.toString(version));
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.fromResponse(response.apply(version))
+                .tag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.randaegarcia.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache de lectura para los resultados del dashboard. Las entradas se guardan bajo la version del
+ * catalogo que lleva el ETag de la respuesta, asi que una escritura confirmada en cualquier instancia
+ * cambia la version y la siguiente lectura no vuelve a servir un cuerpo anterior con el ETag nuevo.
+ * Las escrituras ademas invalidan el cache al confirmar su transaccion para liberar las entradas viejas.
+ */
+@Slf4j
+@ApplicationScoped
+public class DashboardCache {
+    private static final Attributes CACHE_ATTRIBUTES = Attributes.of(AttributeKey.stringKey("cache"), "dashboard");
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "dashboard.cache.ttl", defaultValue = "5M")
+    Duration ttl;
+
+    @ConfigProperty(name = "dashboard.cache.maximum-size", defaultValue = "100")
+    long maximumSize;
+
+    private Cache<String, Object> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+
+        Meter meter = openTelemetry.getMeter("com.randaegarcia.dashboard");
+        meter.counterBuilder("dashboard.cache.hits")
+                .setDescription("Lecturas del dashboard servidas desde el cache")
+                .buildWithCallback(measurement -> measurement.record(cache.stats().hitCount(), CACHE_ATTRIBUTES));
+        meter.counterBuilder("dashboard.cache.misses")
+                .setDescription("Lecturas del dashboard que tuvieron que consultar la base de datos")
+                .buildWithCallback(measurement -> measurement.record(cache.stats().missCount(), CACHE_ATTRIBUTES));
+        meter.counterBuilder("dashboard.cache.evictions")
+                .setDescription("Entradas del dashboard expulsadas por tamano o TTL")
+                .buildWithCallback(measurement -> measurement.record(cache.stats().evictionCount(), CACHE_ATTRIBUTES));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(long catalogVersion, String key, Supplier<T> loader) {
+        return (T) cache.get(catalogVersion + ":" + key, ignored -> loader.get());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalida el cache cuando termina la transaccion actual, para que una lectura concurrente
+     * no vuelva a guardar datos anteriores al commit. Sin transaccion se invalida de inmediato.
+     */
+    public void invalidateAfterCommit() {
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            invalidateAll();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                invalidateAll();
+            }
+        });
+    }
+}
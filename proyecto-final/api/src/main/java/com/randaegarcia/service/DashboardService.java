@@ -1,110 +1,200 @@
 package com.randaegarcia.service;
 
+import com.randaegarcia.domain.dto.DashboardSummaryDto;
+import com.randaegarcia.domain.dto.ProductDashboardDto;
 import com.randaegarcia.domain.model.ProductCategory;
-import com.randaegarcia.domain.model.StockMovement;
-import com.randaegarcia.domain.model.StockMovement$;
-import com.speedment.jpastreamer.application.JPAStreamer;
+import com.randaegarcia.exception.GeneralException;
+import com.randaegarcia.observability.Measured;
+import com.randaegarcia.observability.ServiceMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Las metricas se leen de stock_movement_rollup, que un trigger mantiene en la misma
+ * transaccion que cada insercion en stock_movements, por lo que ninguna consulta recorre
+ * la tabla de movimientos. Todas se calculan en una sola pasada sobre el resultado de
+ * una unica consulta; los metodos individuales son vistas del resumen, que se guarda en
+ * {@link DashboardCache} hasta la siguiente escritura. Cada metodo recibe la version del catalogo
+ * con la que el controlador calculo el ETag (ver {@link CatalogVersion}) y el cache guarda el
+ * resultado bajo esa version.
+ */
 @Slf4j
+@Measured
 @ApplicationScoped
 @RequiredArgsConstructor
 public class DashboardService {
-    private final JPAStreamer jpaStreamer;
-
-    public List<Long> movementsPerDay() {
-        Map<DayOfWeek, Long> movementsByDay = jpaStreamer.stream(StockMovement.class)
-                .filter( stockMovement -> stockMovement.producto.isActive == true)
-                .collect(Collectors.groupingBy(
-                        o -> o.date.getDayOfWeek(), Collectors.counting()
-                ));
-
-        Long[] result = new Long[7];
-        Arrays.fill(result, 0L);
-
-        movementsByDay.forEach((day, count) -> {
-            result[day.ordinal()] += count;
-        });
-        jpaStreamer.close();
-        return Arrays.asList(result);
+    private static final String SUMMARY_KEY = "summary";
+    private static final int MAX_RANKING_LIMIT = 100;
+
+    private final EntityManager em;
+    private final DashboardCache dashboardCache;
+    private final ServiceMetrics serviceMetrics;
+
+    public DashboardSummaryDto summary(long catalogVersion) {
+        return dashboardCache.get(catalogVersion, SUMMARY_KEY, this::loadSummary);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DashboardSummaryDto loadSummary() {
+        List<Object[]> rows = em.createNativeQuery("""
+                        SELECT p.id, p.name, p.category, r.day_of_week, r.movements
+                        FROM stock_movement_rollup r
+                        JOIN producto p ON p.id = r.producto_id
+                        WHERE p.is_active = true
+                          AND r.movements > 0
+                        """)
+                .getResultList();
+        serviceMetrics.recordRows("dashboard.summary", rows.size());
+        return summarize(rows);
+    }
+
+    public List<Long> movementsPerDay(long catalogVersion) {
+        return summary(catalogVersion).movementsPerDay();
     }
 
-    public Map<String, Long> movementsPerCategory(){
-        Map<String, Long> movementsByCategory = jpaStreamer.stream(StockMovement.class)
-                .filter( stockMovement -> stockMovement.producto.isActive == true)
-                .collect(Collectors.groupingBy(
-                        o -> o.producto.category.name(), Collectors.counting()
-                ));
+    public Map<String, Long> movementsPerCategory(long catalogVersion) {
+        return summary(catalogVersion).movementsPerCategory();
+    }
 
-        Map<String, Long> result = Arrays.stream(ProductCategory.values())
-                .collect(Collectors.toMap(
-                        ProductCategory::name,
-                        category -> movementsByCategory.getOrDefault(category.name(), 0L)
-                ));
+    public Map<String, ?> mostMovedProduct(long catalogVersion) {
+        return summary(catalogVersion).mostMovedProduct();
+    }
+
+    public Map<String, ?> leastMovedProduct(long catalogVersion) {
+        return summary(catalogVersion).leastMovedProduct();
+    }
 
-        return result;
+    public Map<String, ?> mostDemandedCategory(long catalogVersion) {
+        return summary(catalogVersion).mostDemandedCategory();
     }
 
-    public Map<String, ?> mostMovedProduct(){
-        return jpaStreamer.stream(StockMovement.class)
-                .filter( stockMovement -> stockMovement.producto.isActive == true)
-                .collect(Collectors.groupingBy(
-                        o -> o.producto, Collectors.counting()
-                ))
-                .entrySet().stream()
-                .max(Comparator.comparingLong(Map.Entry::getValue))
-                .map(entry -> Map.of(
-                        "name", entry.getKey().name,
-                        "quantity", entry.getValue()
-                )).orElse(Collections.emptyMap());
+    public Map<String, ?> leastDemandedCategory(long catalogVersion) {
+        return summary(catalogVersion).leastDemandedCategory();
     }
 
+    /**
+     * Ranking de productos activos por cantidad de movimientos, agrupado y limitado en la base
+     * de datos. Sin ventana de tiempo se lee del rollup; con ventana se agrupa
+     * stock_movements por producto_id dentro de [from, to).
+     */
+    public List<ProductDashboardDto> productRanking(long catalogVersion, String order, int limit, LocalDateTime from, LocalDateTime to) {
+        if (!order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "order debe ser asc o desc");
+        }
+        if (limit < 1 || limit > MAX_RANKING_LIMIT) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "limit debe estar entre 1 y " + MAX_RANKING_LIMIT);
+        }
+        String direction = order.toUpperCase();
+        String key = "ranking:" + direction + ":" + limit + ":" + from + ":" + to;
+        return dashboardCache.get(catalogVersion, key, () -> loadProductRanking(direction, limit, from, to));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductDashboardDto> loadProductRanking(String direction, int limit, LocalDateTime from, LocalDateTime to) {
+        Query query;
+        if (from == null && to == null) {
+            query = em.createNativeQuery("""
+                    SELECT p.id, p.name, CAST(SUM(r.movements) AS BIGINT) AS total
+                    FROM stock_movement_rollup r
+                    JOIN producto p ON p.id = r.producto_id
+                    WHERE p.is_active = true
+                    GROUP BY p.id, p.name
+                    HAVING SUM(r.movements) > 0
+                    ORDER BY total %s, p.id
+                    LIMIT :limit
+                    """.formatted(direction));
+        } else {
+            StringBuilder window = new StringBuilder("1 = 1");
+            if (from != null) {
+                window.append(" AND sm.date >= :from");
+            }
+            if (to != null) {
+                window.append(" AND sm.date < :to");
+            }
+            query = em.createNativeQuery("""
+                    SELECT p.id, p.name, m.total
+                    FROM (SELECT sm.producto_id, COUNT(*) AS total
+                          FROM stock_movements sm
+                          WHERE %s
+                          GROUP BY sm.producto_id) m
+                    JOIN producto p ON p.id = m.producto_id
+                    WHERE p.is_active = true
+                    ORDER BY m.total %s, p.id
+                    LIMIT :limit
+                    """.formatted(window, direction));
+            if (from != null) {
+                query.setParameter("from", from);
+            }
+            if (to != null) {
+                query.setParameter("to", to);
+            }
+        }
+        query.setParameter("limit", limit);
+
+        List<Object[]> rows = query.getResultList();
+        serviceMetrics.recordRows(from == null && to == null ? "dashboard.ranking" : "dashboard.rankingWindow", rows.size());
+        return rows.stream()
+                .map(row -> new ProductDashboardDto(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        ((Number) row[2]).longValue()))
+                .toList();
+    }
+
+    /**
+     * Agrega las filas (id, nombre, categoria, dia ISO, movimientos) del rollup.
+     */
+    static DashboardSummaryDto summarize(List<Object[]> rows) {
+        Long[] perDay = new Long[7];
+        Arrays.fill(perDay, 0L);
+        Map<String, Long> perCategory = new LinkedHashMap<>();
+        Map<Long, Long> perProduct = new LinkedHashMap<>();
+        Map<Long, String> productNames = new HashMap<>();
+
+        for (Object[] row : rows) {
+            Long id = ((Number) row[0]).longValue();
+            String category = (String) row[2];
+            int day = ((Number) row[3]).intValue();
+            long movements = ((Number) row[4]).longValue();
+
+            perDay[day - 1] += movements;
+            perCategory.merge(category, movements, Long::sum);
+            perProduct.merge(id, movements, Long::sum);
+            productNames.putIfAbsent(id, (String) row[1]);
+        }
+
+        Map<String, Long> movementsPerCategory = new LinkedHashMap<>();
+        for (ProductCategory category : ProductCategory.values()) {
+            movementsPerCategory.put(category.name(), perCategory.getOrDefault(category.name(), 0L));
+        }
+
+        Optional<Map.Entry<Long, Long>> mostMoved = perProduct.entrySet().stream().max(Map.Entry.comparingByValue());
+        Optional<Map.Entry<Long, Long>> leastMoved = perProduct.entrySet().stream().min(Map.Entry.comparingByValue());
+        Optional<Map.Entry<String, Long>> mostDemanded = perCategory.entrySet().stream().max(Map.Entry.comparingByValue());
+        Optional<Map.Entry<String, Long>> leastDemanded = perCategory.entrySet().stream().min(Map.Entry.comparingByValue());
 
-    public Map<String, ?> leastMovedProduct(){
-        return jpaStreamer.stream(StockMovement.class)
-                .filter( stockMovement -> stockMovement.producto.isActive == true)
-                .collect(Collectors.groupingBy(
-                        o -> o.producto, Collectors.counting()
-                ))
-                .entrySet().stream()
-                .min(Comparator.comparingLong(Map.Entry::getValue))
-                .map(entry -> Map.of(
-                        "name", entry.getKey().name,
-                        "quantity", entry.getValue()
-                )).orElse(Collections.emptyMap());
+        return new DashboardSummaryDto(
+                Arrays.asList(perDay),
+                movementsPerCategory,
+                mostMoved.map(entry -> productView(productNames.get(entry.getKey()), entry.getValue())).orElse(Collections.emptyMap()),
+                leastMoved.map(entry -> productView(productNames.get(entry.getKey()), entry.getValue())).orElse(Collections.emptyMap()),
+                mostDemanded.map(entry -> categoryView(entry.getKey(), entry.getValue())).orElse(Collections.emptyMap()),
+                leastDemanded.map(entry -> categoryView(entry.getKey(), entry.getValue())).orElse(Collections.emptyMap())
+        );
     }
 
-    public Map<String, ?> mostDemandedCategory() {
-        return jpaStreamer.stream(StockMovement.class)
-                .filter( stockMovement -> stockMovement.producto.isActive == true)
-                .collect(Collectors.groupingBy(
-                        o -> o.producto.category, Collectors.counting()
-                ))
-                .entrySet().stream()
-                .max(Comparator.comparingLong(Map.Entry::getValue))
-                .map(entry -> Map.of(
-                        "description", entry.getKey(),
-                        "quantity", entry.getValue()
-                )).orElse(Collections.emptyMap());
+    private static Map<String, ?> productView(String name, Long quantity) {
+        return Map.of("name", name, "quantity", quantity);
     }
 
-    public Map<String, ?> leastDemandedCategory() {
-        return jpaStreamer.stream(StockMovement.class)
-                .filter( stockMovement -> stockMovement.producto.isActive == true)
-                .collect(Collectors.groupingBy(
-                        o -> o.producto.category, Collectors.counting()
-                ))
-                .entrySet().stream()
-                .min(Comparator.comparingLong(Map.Entry::getValue))
-                .map(entry -> Map.of(
-                        "description", entry.getKey(),
-                        "quantity", entry.getValue()
-                )).orElse(Collections.emptyMap());
+    private static Map<String, ?> categoryView(String category, Long quantity) {
+        return Map.of("description", category, "quantity", quantity);
     }
 }
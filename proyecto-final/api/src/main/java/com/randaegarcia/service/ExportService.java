@@ -0,0 +1,162 @@
+package com.randaegarcia.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randaegarcia.exception.GeneralException;
+import com.randaegarcia.observability.ServiceMetrics;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Exportaciones masivas. Las filas se leen con un cursor JDBC de solo avance (autocommit
+ * desactivado y fetch size fijo, que es lo que el driver de Postgres necesita para no cargar
+ * todo el resultado) y se escriben directo al OutputStream de la respuesta, asi que la memoria
+ * usada no depende de la cantidad de filas.
+ */
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class ExportService {
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final String PRODUCTOS_SQL = """
+            SELECT id, name, description, category, price, cost, profit, quantity,
+                   minimum_stock AS "minimumStock"
+            FROM producto
+            WHERE is_active = true
+            ORDER BY id
+            """;
+
+    private static final String STOCK_MOVEMENTS_SQL = """
+            SELECT id, producto_id AS "productoId", username, date,
+                   actualQuantity AS "actualQuantity", quantityChange AS "quantityChange"
+            FROM stock_movements
+            ORDER BY id
+            """;
+
+    private final AgroalDataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final ServiceMetrics serviceMetrics;
+
+    @ConfigProperty(name = "export.fetch-size", defaultValue = "1000")
+    int fetchSize;
+
+    public Response exportProductos(String format) {
+        return export(PRODUCTOS_SQL, format, "productos");
+    }
+
+    public Response exportStockMovements(String format) {
+        return export(STOCK_MOVEMENTS_SQL, format, "stock-movements");
+    }
+
+    private Response export(String sql, String format, String fileName) {
+        boolean csv = switch (format.toLowerCase()) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new GeneralException(Response.Status.BAD_REQUEST, "format debe ser ndjson o csv");
+        };
+        StreamingOutput body = output -> stream(sql, csv, output, "export." + fileName);
+        return Response.ok(body, MediaType.valueOf(csv ? CSV : NDJSON))
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + (csv ? ".csv" : ".ndjson") + "\"")
+                .build();
+    }
+
+    private void stream(String sql, boolean csv, OutputStream output, String metricName) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    long rows = csv ? writeCsv(resultSet, output) : writeNdjson(resultSet, output);
+                    serviceMetrics.recordRows(metricName, rows);
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            // La respuesta ya puede estar parcialmente enviada, solo queda cortarla
+            log.error("Error al exportar", e);
+            throw new IOException("Error al exportar", e);
+        }
+    }
+
+    private long writeNdjson(ResultSet resultSet, OutputStream output) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (int i = 1; i <= columns; i++) {
+                    generator.writeFieldName(metaData.getColumnLabel(i));
+                    Object value = value(resultSet.getObject(i));
+                    if (value instanceof String text) {
+                        generator.writeString(text);
+                    } else {
+                        generator.writeObject(value);
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(ResultSet resultSet, OutputStream output) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        for (int i = 1; i <= columns; i++) {
+            writer.write(i > 1 ? "," : "");
+            writer.write(csvField(metaData.getColumnLabel(i)));
+        }
+        writer.write("\r\n");
+        while (resultSet.next()) {
+            for (int i = 1; i <= columns; i++) {
+                Object value = value(resultSet.getObject(i));
+                writer.write(i > 1 ? "," : "");
+                writer.write(value == null ? "" : csvField(value.toString()));
+            }
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static Object value(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
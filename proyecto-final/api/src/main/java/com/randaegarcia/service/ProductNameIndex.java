@@ -0,0 +1,205 @@
+package com.randaegarcia.service;
+
+import com.randaegarcia.domain.dto.ProductNameDto;
+import com.randaegarcia.observability.QueryDiagnostics;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Nombres de productos activos ordenados en memoria para busquedas por prefijo: una busqueda es
+ * un recorrido de la skip list desde el prefijo, O(log n + limit), sin tocar la base de datos.
+ * Las escrituras de {@link ProductoService} lo actualizan al confirmar su transaccion y se recarga
+ * completo cada {@code product-name-index.refresh} para incorporar cambios hechos por otras
+ * instancias o directamente en la base de datos.
+ */
+@Slf4j
+@ApplicationScoped
+public class ProductNameIndex {
+    private static final char SEPARATOR = '\u0000';
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    QueryDiagnostics queryDiagnostics;
+
+    @ConfigProperty(name = "product-name-index.refresh", defaultValue = "5M")
+    Duration refresh;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private ScheduledExecutorService executor;
+    private final Object reloadLock = new Object();
+    private List<Consumer<Snapshot>> changesDuringReload;
+
+    /**
+     * La clave es el nombre en minusculas seguido del id, para ordenar sin distinguir mayusculas
+     * y admitir nombres que solo difieren en ellas.
+     */
+    private record Snapshot(ConcurrentSkipListMap<String, ProductNameDto> byKey, Map<Long, String> keysById) {
+        Snapshot() {
+            this(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * La primera carga es sincronica para que las sugerencias no salgan vacias al arrancar; las
+     * siguientes corren cada {@code refresh} en segundo plano.
+     */
+    void onStart(@Observes StartupEvent event) {
+        reload();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-name-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::reloadSafely, refresh.toMillis(), refresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hasta {@code limit} productos cuyo nombre empieza con {@code prefix}, ordenados por nombre.
+     */
+    public List<ProductNameDto> search(String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        List<ProductNameDto> result = new ArrayList<>(Math.min(limit, 64));
+        ConcurrentNavigableMap<String, ProductNameDto> tail = snapshot.byKey().tailMap(lowerPrefix);
+        for (Map.Entry<String, ProductNameDto> entry : tail.entrySet()) {
+            if (result.size() >= limit || !entry.getKey().startsWith(lowerPrefix)) {
+                break;
+            }
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    public void put(Long id, String name) {
+        apply(target -> {
+            String key = name.toLowerCase(Locale.ROOT) + SEPARATOR + id;
+            String previous = target.keysById().put(id, key);
+            if (previous != null && !previous.equals(key)) {
+                target.byKey().remove(previous);
+            }
+            target.byKey().put(key, new ProductNameDto(id, name));
+        });
+    }
+
+    public void remove(Long id) {
+        apply(target -> {
+            String previous = target.keysById().remove(id);
+            if (previous != null) {
+                target.byKey().remove(previous);
+            }
+        });
+    }
+
+    /**
+     * Los cambios se aplican de a uno, asi {@code keysById} y {@code byKey} quedan consistentes
+     * aunque dos transacciones renombren el mismo producto a la vez. Si hay una recarga en curso
+     * el cambio tambien se anota para repetirlo sobre lo que esta cargando, que puede haber leido
+     * la tabla antes de que la transaccion confirmara.
+     */
+    private synchronized void apply(Consumer<Snapshot> change) {
+        change.accept(snapshot);
+        if (changesDuringReload != null) {
+            changesDuringReload.add(change);
+        }
+    }
+
+    /**
+     * Aplica el alta o baja cuando la transaccion actual confirma; si hace rollback el indice no
+     * cambia. Sin transaccion se aplica de inmediato.
+     */
+    public void updateAfterCommit(Long id, String name, boolean active) {
+        Runnable change = active ? () -> put(id, name) : () -> remove(id);
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            change.run();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    change.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Reconstruye el indice desde la tabla producto y lo reemplaza de una vez. Los cambios que
+     * confirman mientras corre la consulta se repiten sobre el indice nuevo antes del reemplazo;
+     * repetir uno que la consulta ya vio no cambia nada.
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                changesDuringReload = new ArrayList<>();
+            }
+            try {
+                Snapshot loaded = new Snapshot();
+                // Lee a proposito todos los productos activos
+                List<Object[]> rows = queryDiagnostics.fullRead(() -> QuarkusTransaction.requiringNew().call(() ->
+                        em.createQuery("select id, name from Producto where isActive = true", Object[].class)
+                                .getResultList()));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    String name = (String) row[1];
+                    String key = name.toLowerCase(Locale.ROOT) + SEPARATOR + id;
+                    loaded.byKey().put(key, new ProductNameDto(id, name));
+                    loaded.keysById().put(id, key);
+                }
+                synchronized (this) {
+                    changesDuringReload.forEach(change -> change.accept(loaded));
+                    snapshot = loaded;
+                }
+            } finally {
+                synchronized (this) {
+                    changesDuringReload = null;
+                }
+            }
+        }
+    }
+
+    private void reloadSafely() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("No se pudo recargar el indice de nombres de productos", e);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.randaegarcia.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randaegarcia.domain.dto.ImportReportDto;
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import com.randaegarcia.exception.GeneralException;
+import com.randaegarcia.observability.ServiceMetrics;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.core.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.hibernate.envers.RevisionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importacion masiva de productos desde un cuerpo CSV o NDJSON leido de forma incremental.
+ * Cada bloque de filas se valida en paralelo con Bean Validation, resuelve los nombres
+ * repetidos con una sola consulta y se inserta en su propia transaccion con JDBC batching
+ * (productos y su movimiento inicial), asi que un error no deshace los bloques anteriores.
+ */
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class ProductoImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of(
+            "name", "description", "category", "price", "cost", "profit", "quantity", "minimumStock");
+
+    private final EntityManager em;
+    private final JsonWebToken jwt;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DashboardCache dashboardCache;
+    private final AuditOutbox auditOutbox;
+    private final ProductNameIndex productNameIndex;
+    private final ServiceMetrics serviceMetrics;
+
+    @ConfigProperty(name = "import.chunk-size", defaultValue = "1000")
+    int chunkSize;
+
+    public Response importCsv(InputStream body) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun();
+        try {
+            List<String> header = readCsvRecord(reader);
+            if (header == null) {
+                throw new GeneralException(Response.Status.BAD_REQUEST, "El CSV esta vacio");
+            }
+            List<String> columns = header.stream().map(String::trim).toList();
+            if (!columns.containsAll(CSV_COLUMNS)) {
+                throw new GeneralException(Response.Status.BAD_REQUEST, "El CSV debe tener las columnas " + String.join(",", CSV_COLUMNS));
+            }
+            List<String> values;
+            while ((values = readCsvRecord(reader)) != null) {
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                long rowNumber = run.received + 1;
+                try {
+                    run.add(rowNumber, toProducto(columns, values));
+                } catch (RuntimeException e) {
+                    run.reject(rowNumber, null, List.of("Fila invalida: " + e.getMessage()));
+                }
+            }
+        } catch (IOException e) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "No se pudo leer el CSV: " + e.getMessage());
+        }
+        return Response.ok(run.finish()).build();
+    }
+
+    public Response importNdjson(InputStream body) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                long rowNumber = run.received + 1;
+                try {
+                    run.add(rowNumber, objectMapper.readValue(line, Producto.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(rowNumber, null, List.of("Fila invalida: " + e.getOriginalMessage()));
+                }
+            }
+        } catch (IOException e) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "No se pudo leer el NDJSON: " + e.getMessage());
+        }
+        return Response.ok(run.finish()).build();
+    }
+
+    private record Row(long number, Producto producto) { }
+
+    private record RowResult(Row row, List<String> messages) { }
+
+    private record Inserted(int imported, List<Row> duplicates) { }
+
+    /**
+     * Estado de una importacion: acumula filas hasta completar un bloque y lleva el reporte.
+     */
+    private class ImportRun {
+        private final List<Row> chunk = new ArrayList<>(chunkSize);
+        private final List<ImportReportDto.RowError> errors = new ArrayList<>();
+        private final String username = jwt.getClaim("name");
+        private long received;
+        private long imported;
+        private long rejected;
+
+        void add(long rowNumber, Producto producto) {
+            received++;
+            chunk.add(new Row(rowNumber, producto));
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        void reject(long rowNumber, String name, List<String> messages) {
+            received++;
+            recordError(rowNumber, name, messages);
+        }
+
+        private void recordError(long rowNumber, String name, List<String> messages) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReportDto.RowError(rowNumber, name, messages));
+            }
+        }
+
+        ImportReportDto finish() {
+            flushChunk();
+            if (imported > 0) {
+                dashboardCache.invalidateAll();
+            }
+            return new ImportReportDto(received, imported, rejected, errors);
+        }
+
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<RowResult> validated = chunk.parallelStream()
+                    .map(row -> new RowResult(row, validate(row.producto())))
+                    .toList();
+            chunk.clear();
+
+            List<Row> candidates = new ArrayList<>();
+            for (RowResult result : validated) {
+                if (result.messages().isEmpty()) {
+                    candidates.add(result.row());
+                } else {
+                    countRejected(result.row(), result.messages());
+                }
+            }
+            if (candidates.isEmpty()) {
+                return;
+            }
+            try {
+                apply(QuarkusTransaction.requiringNew().call(() -> insert(candidates)));
+            } catch (RuntimeException e) {
+                if (!isUniqueViolation(e)) {
+                    throw e;
+                }
+                // Otra peticion inserto alguno de los nombres despues de la consulta del bloque:
+                // se reintenta fila por fila para rechazar solo las que chocan
+                for (Row row : candidates) {
+                    try {
+                        apply(QuarkusTransaction.requiringNew().call(() -> insert(List.of(row))));
+                    } catch (RuntimeException rowError) {
+                        if (!isUniqueViolation(rowError)) {
+                            throw rowError;
+                        }
+                        countRejected(row, List.of("Nombre de producto ya existe"));
+                    }
+                }
+            }
+        }
+
+        /**
+         * El reporte se actualiza solo cuando la transaccion del bloque confirmo.
+         */
+        private void apply(Inserted inserted) {
+            imported += inserted.imported();
+            inserted.duplicates().forEach(row -> countRejected(row, List.of("Nombre de producto ya existe")));
+        }
+
+        /**
+         * El nombre es unico en toda la tabla, incluidos los productos inactivos, asi que se
+         * busca el bloque completo en una sola consulta y ademas se descartan repetidos del archivo.
+         */
+        private Inserted insert(List<Row> candidates) {
+            Set<String> names = candidates.stream().map(row -> row.producto().name).collect(Collectors.toSet());
+            Set<String> taken = new HashSet<>(em.createQuery("select name from Producto where name in :names", String.class)
+                    .setParameter("names", names)
+                    .getResultList());
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = new ArrayList<>(candidates.size());
+            List<Row> duplicates = new ArrayList<>();
+            for (Row row : candidates) {
+                Producto producto = row.producto();
+                if (!taken.add(producto.name)) {
+                    duplicates.add(row);
+                    continue;
+                }
+                producto.id = null;
+                producto.version = null;
+                producto.isActive = true;
+                producto.persist();
+
+                var stockMovement = new StockMovement();
+                stockMovement.producto = producto;
+                stockMovement.date = now;
+                stockMovement.quantityChange = producto.quantity;
+                stockMovement.actualQuantity = producto.quantity;
+                stockMovement.username = username;
+                stockMovement.persist();
+                productNameIndex.updateAfterCommit(producto.id, producto.name, true);
+                ids.add(producto.id);
+            }
+            em.flush();
+            serviceMetrics.stockMovementsWritten("import", ids.size());
+            auditOutbox.record(ids, RevisionType.ADD);
+            em.clear();
+            return new Inserted(ids.size(), duplicates);
+        }
+
+        private void countRejected(Row row, List<String> messages) {
+            recordError(row.number(), row.producto().name, messages);
+        }
+    }
+
+    private List<String> validate(Producto producto) {
+        List<String> messages = validator.validate(producto).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (producto.quantity != null && producto.minimumStock != null && producto.quantity < producto.minimumStock) {
+            messages.add("quantity: no puede ser menor que minimumStock");
+        }
+        return messages;
+    }
+
+    private static Producto toProducto(List<String> columns, List<String> values) {
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("se esperaban " + columns.size() + " columnas y hay " + values.size());
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            row.put(columns.get(i), values.get(i).isEmpty() ? null : values.get(i));
+        }
+        Producto producto = new Producto();
+        producto.name = row.get("name");
+        producto.description = row.get("description");
+        producto.category = parse(row.get("category"), ProductCategory::valueOf);
+        producto.price = parse(row.get("price"), Double::valueOf);
+        producto.cost = parse(row.get("cost"), Double::valueOf);
+        producto.profit = parse(row.get("profit"), Double::valueOf);
+        producto.quantity = parse(row.get("quantity"), Long::valueOf);
+        producto.minimumStock = parse(row.get("minimumStock"), Long::valueOf);
+        return producto;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value.trim());
+    }
+
+    private static boolean isUniqueViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && "23505".equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lee un registro CSV segun RFC 4180: los campos entre comillas dobles pueden tener comas y
+     * saltos de linea, y "" escapa una comilla; es el mismo formato que genera la exportacion.
+     * Devuelve null al final del cuerpo.
+     */
+    static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        current.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    current.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                current.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
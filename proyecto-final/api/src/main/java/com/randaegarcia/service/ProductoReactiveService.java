@@ -0,0 +1,243 @@
+package com.randaegarcia.service;
+
+import com.randaegarcia.domain.dto.PaginatedResponse;
+import com.randaegarcia.domain.dto.ProductoListRequestDto;
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import com.randaegarcia.exception.GeneralException;
+import com.randaegarcia.observability.QueryDiagnostics;
+import com.randaegarcia.observability.ServiceMetrics;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lecturas de productos sobre el cliente reactivo de Postgres: las consultas se envian desde el
+ * event loop y la respuesta se arma cuando llegan las filas, sin ocupar un hilo worker mientras
+ * tanto. Replica {@link ProductoService#findAll}, {@link ProductoService#findById(Long, Request)}
+ * y {@link ProductoService#getQuantityHistory} con SQL equivalente y las mismas respuestas
+ * (PaginatedResponse, ETag de catalogo y de version), para poder comparar ambas rutas.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+@IfBuildProperty(name = "productos.reactive-read.enabled", stringValue = "true")
+public class ProductoReactiveService {
+    private static final String PRODUCTO_COLUMNS = """
+            id, name, description, category, price, cost, profit, quantity, minimum_stock, is_active, version""";
+
+    private final Pool client;
+    private final ServiceMetrics serviceMetrics;
+    private final QueryDiagnostics queryDiagnostics;
+
+    public Uni<Response> findAll(ProductoListRequestDto requestDto, Request request) {
+        if (requestDto.size() < 1) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "size debe ser mayor que 0");
+        }
+        return catalogVersion().flatMap(version -> {
+            EntityTag etag = new EntityTag(Long.toString(version));
+            CacheControl cacheControl = new CacheControl();
+            cacheControl.setNoCache(true);
+
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+            if (notModified != null) {
+                return Uni.createFrom().item(notModified.cacheControl(cacheControl).build());
+            }
+            return page(requestDto).map(response -> Response.ok(response)
+                    .tag(etag)
+                    .cacheControl(cacheControl)
+                    .build());
+        });
+    }
+
+    private Uni<Long> catalogVersion() {
+        return client.query("SELECT SUM(version) FROM catalog_version")
+                .execute()
+                .map(rows -> rows.iterator().next().getLong(0));
+    }
+
+    /**
+     * El conteo y la pagina se piden a la vez por conexiones distintas del pool.
+     */
+    private Uni<PaginatedResponse<Producto>> page(ProductoListRequestDto requestDto) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder filter = new StringBuilder("is_active = true");
+
+        if (!requestDto.name().isEmpty()) {
+            params.add(escapeLike(requestDto.name().toLowerCase()) + "%");
+            filter.append(" AND lower(name) LIKE $").append(params.size()).append(" ESCAPE '\\'");
+        }
+        if (!requestDto.category().isEmpty()) {
+            Optional<ProductCategory> category = Arrays.stream(ProductCategory.values())
+                    .filter(value -> value.name().equals(requestDto.category()))
+                    .findFirst();
+            if (category.isEmpty()) {
+                return Uni.createFrom().item(PaginatedResponse.of(List.of(), requestDto.page(), requestDto.size(), 0, null));
+            }
+            params.add(category.get().name());
+            filter.append(" AND category = $").append(params.size());
+        }
+        params.add(requestDto.minPrice());
+        filter.append(" AND price >= $").append(params.size());
+        if (requestDto.maxPrice() != -1) {
+            params.add(requestDto.maxPrice());
+            filter.append(" AND price <= $").append(params.size());
+        }
+
+        Uni<Long> total = client.preparedQuery("SELECT COUNT(*) FROM producto WHERE " + filter)
+                .execute(Tuple.from(params))
+                .map(rows -> rows.iterator().next().getLong(0));
+
+        // Un elemento extra indica si hay otra pagina, igual que en la ruta bloqueante
+        List<Object> pageParams = new ArrayList<>(params);
+        StringBuilder sql = new StringBuilder("SELECT " + PRODUCTO_COLUMNS + " FROM producto WHERE " + filter);
+        if (requestDto.after() != null) {
+            pageParams.add(requestDto.after());
+            sql.append(" AND id < $").append(pageParams.size());
+        }
+        pageParams.add(requestDto.size() + 1);
+        sql.append(" ORDER BY id DESC LIMIT $").append(pageParams.size());
+        if (requestDto.after() == null) {
+            pageParams.add(requestDto.page() * requestDto.size());
+            sql.append(" OFFSET $").append(pageParams.size());
+        }
+        Uni<List<Producto>> content = client.preparedQuery(sql.toString())
+                .execute(Tuple.from(pageParams))
+                .map(rows -> {
+                    serviceMetrics.recordRows("producto.findAll.reactive", rows.size());
+                    queryDiagnostics.checkRows("producto.findAll.reactive", rows.size());
+                    List<Producto> productos = new ArrayList<>(rows.size());
+                    rows.forEach(row -> productos.add(toProducto(row)));
+                    return productos;
+                });
+
+        return Uni.combine().all().unis(total, content).asTuple().map(result -> {
+            List<Producto> productoList = result.getItem2();
+            String nextCursor = null;
+            if (productoList.size() > requestDto.size()) {
+                productoList = productoList.subList(0, requestDto.size());
+                nextCursor = productoList.get(productoList.size() - 1).id.toString();
+            }
+            return PaginatedResponse.of(productoList, requestDto.page(), requestDto.size(), result.getItem1(), nextCursor);
+        });
+    }
+
+    public Uni<Response> findById(Long id, Request request) {
+        return findActive(id).map(producto -> {
+            if (producto == null) {
+                return Response.noContent().build();
+            }
+            EntityTag etag = new EntityTag(String.valueOf(producto.version));
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+            if (notModified != null) {
+                return notModified.build();
+            }
+            return Response.ok(producto).tag(etag).build();
+        });
+    }
+
+    public Uni<Response> getQuantityHistory(Long id, int page, int size, String before) {
+        ProductoService.HistoryCursor cursor = before != null ? ProductoService.HistoryCursor.parse(before) : null;
+        return findActive(id).flatMap(producto -> {
+            if (producto == null) {
+                return Uni.createFrom().failure(new NotFoundException("Product not found"));
+            }
+            if (size < 1) {
+                return Uni.createFrom().failure(new GeneralException(Response.Status.BAD_REQUEST, "size debe ser mayor que 0"));
+            }
+
+            Tuple params = Tuple.of(id);
+            StringBuilder sql = new StringBuilder("""
+                    SELECT sm.id, sm.username, sm.date, sm.actualQuantity, sm.quantityChange,
+                           (SELECT COUNT(*) FROM stock_movements c WHERE c.producto_id = $1) AS total
+                    FROM stock_movements sm
+                    WHERE sm.producto_id = $1
+                    """);
+            if (cursor != null) {
+                params.addLocalDateTime(cursor.date()).addLong(cursor.id());
+                sql.append(" AND (sm.date < $2 OR (sm.date = $2 AND sm.id < $3))");
+            }
+            params.addInteger(size + 1);
+            sql.append(" ORDER BY sm.date DESC, sm.id DESC LIMIT $").append(params.size());
+            if (cursor == null) {
+                params.addInteger(page * size);
+                sql.append(" OFFSET $").append(params.size());
+            }
+
+            return client.preparedQuery(sql.toString())
+                    .execute(params)
+                    .flatMap(rows -> history(producto, rows, page, size));
+        });
+    }
+
+    private Uni<Response> history(Producto producto, RowSet<Row> rows, int page, int size) {
+        serviceMetrics.recordRows("stock_movements.history.reactive", rows.size());
+        queryDiagnostics.checkRows("stock_movements.history.reactive", rows.size());
+        List<StockMovement> stockMovements = new ArrayList<>(Math.min(rows.size(), size));
+        long rowTotal = 0;
+        for (Row row : rows) {
+            rowTotal = row.getLong("total");
+            if (stockMovements.size() < size) {
+                stockMovements.add(new StockMovement(row.getLong("id"), producto, row.getString("username"),
+                        row.getLocalDateTime("date"), row.getLong("actualquantity"), row.getLong("quantitychange")));
+            }
+        }
+
+        Uni<Long> total = rows.size() == 0
+                ? client.preparedQuery("SELECT COUNT(*) FROM stock_movements WHERE producto_id = $1")
+                        .execute(Tuple.of(producto.id))
+                        .map(count -> count.iterator().next().getLong(0))
+                : Uni.createFrom().item(rowTotal);
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            StockMovement last = stockMovements.get(stockMovements.size() - 1);
+            nextCursor = new ProductoService.HistoryCursor(last.date, last.id).toString();
+        }
+        String cursor = nextCursor;
+        return total.map(count -> Response.ok(PaginatedResponse.of(stockMovements, page, size, count, cursor)).build());
+    }
+
+    private Uni<Producto> findActive(Long id) {
+        return client.preparedQuery("SELECT " + PRODUCTO_COLUMNS + " FROM producto WHERE id = $1 AND is_active = true")
+                .execute(Tuple.of(id))
+                .map(rows -> rows.size() == 0 ? null : toProducto(rows.iterator().next()));
+    }
+
+    private static Producto toProducto(Row row) {
+        Producto producto = new Producto();
+        producto.id = row.getLong("id");
+        producto.name = row.getString("name");
+        producto.description = row.getString("description");
+        producto.category = ProductCategory.valueOf(row.getString("category"));
+        producto.price = row.getDouble("price");
+        producto.cost = row.getDouble("cost");
+        producto.profit = row.getDouble("profit");
+        producto.quantity = row.getLong("quantity");
+        producto.minimumStock = row.getLong("minimum_stock");
+        producto.isActive = row.getBoolean("is_active");
+        producto.version = row.getLong("version");
+        return producto;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
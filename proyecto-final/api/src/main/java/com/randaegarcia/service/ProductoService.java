@@ -1,62 +1,129 @@
 package com.randaegarcia.service;
 
+import com.randaegarcia.domain.dto.KeysetResponse;
 import com.randaegarcia.domain.dto.PaginatedResponse;
+import com.randaegarcia.domain.dto.ProductNameDto;
 import com.randaegarcia.domain.dto.ProductoListRequestDto;
+import com.randaegarcia.domain.dto.QuantityHistoryDto;
+import com.randaegarcia.domain.dto.StockMovementBatchItemDto;
+import com.randaegarcia.domain.dto.StockMovementBatchResultDto;
+import com.randaegarcia.domain.model.ProductCategory;
 import com.randaegarcia.domain.model.Producto;
 import com.randaegarcia.domain.model.StockMovement;
-import com.randaegarcia.domain.model.StockMovement$;
 import com.randaegarcia.exception.ConflictException;
+import com.randaegarcia.exception.GeneralException;
 import com.randaegarcia.exception.StockExceededException;
-import com.speedment.jpastreamer.application.JPAStreamer;
+import com.randaegarcia.observability.Measured;
+import com.randaegarcia.observability.ServiceMetrics;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.hibernate.envers.RevisionType;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
+@Measured
 @ApplicationScoped
 @RequiredArgsConstructor
 public class ProductoService {
-    private final JPAStreamer jpaStreamer;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final EntityManager em;
     private final JsonWebToken jwt;
+    private final DashboardCache dashboardCache;
+    private final AuditOutbox auditOutbox;
+    private final ProductNameIndex productNameIndex;
+    private final ServiceMetrics serviceMetrics;
 
     public Response findAll(ProductoListRequestDto requestDto) {
-        Supplier<Stream<Producto>> filteredStreamSupplier = () ->
-                jpaStreamer.stream(Producto.class)
-                        .filter(Producto::getIsActive)
-                        .filter(producto -> producto.getName().toLowerCase().startsWith(requestDto.name().toLowerCase()))
-                        .filter(producto -> producto.getCategory().name().equals(requestDto.category()) || requestDto.category().isEmpty())
-                        .filter(producto -> producto.getPrice() >= requestDto.minPrice() && (producto.getPrice() <= requestDto.maxPrice() || requestDto.maxPrice() == -1));
+        if (requestDto.size() < 1) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "size debe ser mayor que 0");
+        }
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder filter = new StringBuilder("isActive = true");
+
+        if (!requestDto.name().isEmpty()) {
+            filter.append(" and lower(name) like :name escape '\\'");
+            params.put("name", escapeLike(requestDto.name().toLowerCase()) + "%");
+        }
+        if (!requestDto.category().isEmpty()) {
+            Optional<ProductCategory> category = Arrays.stream(ProductCategory.values())
+                    .filter(value -> value.name().equals(requestDto.category()))
+                    .findFirst();
+            if (category.isEmpty()) {
+                return Response.ok(PaginatedResponse.of(List.of(), requestDto.page(), requestDto.size(), 0, null)).build();
+            }
+            filter.append(" and category = :category");
+            params.put("category", category.get());
+        }
+        filter.append(" and price >= :minPrice");
+        params.put("minPrice", requestDto.minPrice());
+        if (requestDto.maxPrice() != -1) {
+            filter.append(" and price <= :maxPrice");
+            params.put("maxPrice", requestDto.maxPrice());
+        }
 
         // Conteo total con filtros aplicados
-        long total = filteredStreamSupplier.get().count();
+        long total = Producto.count(filter.toString(), params);
 
-        List<Producto> productoList = filteredStreamSupplier.get()
-                .sorted((o1, o2) -> o2.id.compareTo(o1.id))
-                .skip((long) requestDto.page() * requestDto.size())
-                .limit(requestDto.size())
-                .toList();
+        // Se pide un elemento extra para saber si hay otra pagina sin otra consulta
+        List<Producto> productoList;
+        if (requestDto.after() != null) {
+            params.put("after", requestDto.after());
+            productoList = Producto.<Producto>find(filter + " and id < :after", Sort.descending("id"), params)
+                    .range(0, requestDto.size())
+                    .list();
+        } else {
+            int offset = requestDto.page() * requestDto.size();
+            productoList = Producto.<Producto>find(filter.toString(), Sort.descending("id"), params)
+                    .range(offset, offset + requestDto.size())
+                    .list();
+        }
+        serviceMetrics.recordRows("producto.findAll", productoList.size());
+
+        String nextCursor = null;
+        if (productoList.size() > requestDto.size()) {
+            productoList = productoList.subList(0, requestDto.size());
+            nextCursor = productoList.get(productoList.size() - 1).id.toString();
+        }
 
         PaginatedResponse<Producto> response = PaginatedResponse.of(
                 productoList,
                 requestDto.page(),
                 requestDto.size(),
-                total
+                total,
+                nextCursor
         );
-
-        jpaStreamer.close();
         return Response.ok(response).build();
     }
 
@@ -68,6 +135,7 @@ public class ProductoService {
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
         producto.isActive = true;
+        producto.version = null;
         producto.persist();
 
         var stockMovement = new StockMovement();
@@ -77,36 +145,143 @@ public class ProductoService {
         stockMovement.actualQuantity = producto.quantity;
         stockMovement.username = jwt.getClaim("name");
         stockMovement.persist();
+        serviceMetrics.stockMovementsWritten("create", 1);
+        auditOutbox.record(producto.id, RevisionType.ADD);
+        productNameIndex.updateAfterCommit(producto.id, producto.name, true);
+        dashboardCache.invalidateAfterCommit();
         return Response.ok(producto).build();
     }
 
+    /**
+     * Sugerencias de nombres para autocompletar, servidas desde {@link ProductNameIndex}. El ETag
+     * sale del contenido, asi que una misma URL responde 304 mientras no cambien las sugerencias,
+     * tambien despues de reiniciar o si el pedido lo atiende otra instancia.
+     */
+    public Response suggest(String q, int limit, Request request) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "limit debe estar entre 1 y " + MAX_SUGGESTIONS);
+        }
+        List<ProductNameDto> suggestions = q.isBlank() ? List.of() : productNameIndex.search(q.trim(), limit);
+        EntityTag etag = suggestionsTag(suggestions);
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.ok(suggestions)
+                .tag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
     public Producto findById(Long id) {
         return Producto.find("id = ?1 and isActive = true", id).firstResult();
     }
 
-    public Response update(@NotNull @Valid Producto producto) {
+    /**
+     * El ETag del producto es su version, el mismo valor que se envia en If-Match al actualizarlo.
+     */
+    public Response findById(Long id, Request request) {
+        Producto producto = findById(id);
+        if (producto == null) {
+            return Response.noContent().build();
+        }
+        EntityTag etag = versionTag(producto);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(producto).tag(etag).build();
+    }
+
+    /**
+     * Actualiza el producto si sigue en la version que el cliente leyo: la de If-Match o, si no
+     * viene el encabezado, la del cuerpo. El UPDATE lleva la condicion sobre version (@Version), asi
+     * que dos editores concurrentes con la misma version no se pisan: el segundo recibe 409.
+     */
+    public Response update(@NotNull @Valid Producto producto, String ifMatch) {
         Producto oldProducto = Producto.findById(producto.id);
         if (oldProducto == null) {
             throw new NotFoundException("Producto no encontrado");
         }
+        Long expectedVersion = ifMatch != null ? parseIfMatch(ifMatch, oldProducto) : producto.version;
+        if (expectedVersion != null && !expectedVersion.equals(oldProducto.version)) {
+            throw new ConflictException("El producto fue modificado por otro usuario, version actual " + oldProducto.version);
+        }
+        // El dashboard solo depende del nombre, la categoria y los movimientos
+        if (!oldProducto.name.equals(producto.name) || oldProducto.category != producto.category
+                || !Objects.equals(oldProducto.quantity, producto.quantity)) {
+            dashboardCache.invalidateAfterCommit();
+        }
+        if (!oldProducto.name.equals(producto.name)) {
+            productNameIndex.updateAfterCommit(oldProducto.id, producto.name, Boolean.TRUE.equals(oldProducto.isActive));
+        }
         oldProducto.name = producto.name;
         oldProducto.description = producto.description;
         oldProducto.category = producto.category;
         oldProducto.price = producto.price;
         oldProducto.cost = producto.cost;
         oldProducto.profit = producto.profit;
-        if (oldProducto.quantity != producto.quantity) {
+        if (!Objects.equals(oldProducto.quantity, producto.quantity)) {
             var stockMovement = new StockMovement();
-            stockMovement.producto = producto;
+            // El producto del cuerpo esta desconectado y sin version parece transitorio
+            stockMovement.producto = oldProducto;
             stockMovement.date = LocalDateTime.now();
             stockMovement.quantityChange = Math.max(oldProducto.quantity, producto.quantity) - Math.min(oldProducto.quantity, producto.quantity);
             stockMovement.actualQuantity = producto.quantity;
             stockMovement.username = jwt.getClaim("name");
             stockMovement.persist();
+            serviceMetrics.stockMovementsWritten("update", 1);
         }
         oldProducto.quantity = producto.quantity;
+        try {
+            em.flush();
+        } catch (OptimisticLockException e) {
+            throw new ConflictException("El producto fue modificado por otro usuario");
+        }
+        auditOutbox.record(oldProducto.id, RevisionType.MOD);
 
-        return Response.ok(oldProducto).build();
+        return Response.ok(oldProducto).tag(versionTag(oldProducto)).build();
+    }
+
+    /**
+     * SHA-256 de los pares (id, nombre) en el orden en que se devuelven.
+     */
+    private static EntityTag suggestionsTag(List<ProductNameDto> suggestions) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (ProductNameDto suggestion : suggestions) {
+            digest.update((suggestion.id() + "\u0000" + suggestion.name() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return new EntityTag(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static EntityTag versionTag(Producto producto) {
+        return new EntityTag(String.valueOf(producto.version));
+    }
+
+    /**
+     * Acepta {@code "3"}, {@code W/"3"}, {@code 3} o {@code *} (cualquier version).
+     */
+    private static Long parseIfMatch(String ifMatch, Producto current) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return current.version;
+        }
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "If-Match invalido: " + ifMatch);
+        }
     }
 
     public Response deleteProducto(Long id) {
@@ -116,50 +291,247 @@ public class ProductoService {
         }
         producto.isActive = false;
         producto.persist();
+        auditOutbox.record(producto.id, RevisionType.MOD);
+        productNameIndex.updateAfterCommit(producto.id, producto.name, false);
+        dashboardCache.invalidateAfterCommit();
         return Response.ok(producto).build();
     }
 
-    public Response getQuantityHistory(Long id, int page, int size) {
+    public Response getQuantityHistory(Long id, int page, int size, String before) {
         Producto producto = Producto.find("id = ?1 and isActive = true", id).firstResult();
         if (producto == null || !producto.isActive) {
             throw new NotFoundException("Product not found");
         }
+        if (size < 1) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "size debe ser mayor que 0");
+        }
 
-        List<StockMovement> stockMovements = jpaStreamer.stream(StockMovement.class)
-                .filter(stockMovement -> stockMovement.producto.id.equals(id))
-                .sorted(StockMovement$.date.reversed())
-                .skip((long) page * size)
+        // Una sola consulta ordenada por (date, id) sobre el indice del historial; el total viaja
+        // como subconsulta escalar para que no dependa del cursor ni de que la pagina tenga filas
+        StringBuilder hql = new StringBuilder("""
+                select sm, (select count(c) from StockMovement c where c.producto.id = :id)
+                from StockMovement sm
+                where sm.producto.id = :id
+                """);
+        HistoryCursor cursor = before != null ? HistoryCursor.parse(before) : null;
+        if (cursor != null) {
+            hql.append(" and (sm.date < :beforeDate or (sm.date = :beforeDate and sm.id < :beforeId))");
+        }
+        hql.append(" order by sm.date desc, sm.id desc");
+
+        TypedQuery<Object[]> query = em.createQuery(hql.toString(), Object[].class)
+                .setParameter("id", id)
+                .setMaxResults(size + 1);
+        if (cursor != null) {
+            query.setParameter("beforeDate", cursor.date()).setParameter("beforeId", cursor.id());
+        } else {
+            query.setFirstResult(page * size);
+        }
+
+        // El producto ya esta en el contexto de persistencia, asi que la asociacion lazy de cada
+        // movimiento se resuelve sin consultas adicionales
+        List<Object[]> rows = query.getResultList();
+        serviceMetrics.recordRows("stock_movements.history", rows.size());
+        List<StockMovement> stockMovements = rows.stream()
                 .limit(size)
-                .collect(Collectors.toList());
+                .map(row -> (StockMovement) row[0])
+                .toList();
+        long total = rows.isEmpty()
+                ? StockMovement.count("producto.id = ?1", id)
+                : (Long) rows.get(0)[1];
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            StockMovement last = stockMovements.get(stockMovements.size() - 1);
+            nextCursor = new HistoryCursor(last.date, last.id).toString();
+        }
 
         PaginatedResponse<StockMovement> response = PaginatedResponse.of(
                 stockMovements,
                 page,
                 size,
-                StockMovement.count("producto = ?1", producto)
+                total,
+                nextCursor
         );
         return Response.ok(response).build();
     }
 
+    /**
+     * Revisiones de Envers del producto, de la mas reciente a la mas antigua, paginadas por rev.
+     * Se leen size + 1 filas por el indice (id, rev): la fila extra indica si hay otra pagina y
+     * da la cantidad anterior de la ultima fila mediante lead(), sin reconstruir entidades con
+     * AuditReader ni recorrer el resto del historial.
+     */
+    @SuppressWarnings("unchecked")
+    public Response getRevisions(Long id, int size, Integer before) {
+        if (!Producto.existsById(id)) {
+            throw new NotFoundException("Product not found");
+        }
+        if (size < 1) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "size debe ser mayor que 0");
+        }
+
+        Query query = em.createNativeQuery("""
+                        WITH page AS (
+                            SELECT a.rev, a.quantity
+                            FROM producto_aud a
+                            WHERE a.id = :id
+                              AND a.rev < :before
+                            ORDER BY a.rev DESC
+                            LIMIT :limit
+                        )
+                        SELECT p.rev, r.username, r.revtstmp, p.quantity,
+                               lead(p.quantity) OVER (ORDER BY p.rev DESC) AS previous_quantity
+                        FROM page p
+                        JOIN revinfo r ON r.rev = p.rev
+                        ORDER BY p.rev DESC
+                        """)
+                .setParameter("id", id)
+                .setParameter("before", before != null ? before : Integer.MAX_VALUE)
+                .setParameter("limit", size + 1);
+
+        List<Object[]> rows = query.getResultList();
+        serviceMetrics.recordRows("producto_aud.revisions", rows.size());
+        List<QuantityHistoryDto> revisions = rows.stream()
+                .limit(size)
+                .map(row -> {
+                    Long quantity = row[3] != null ? ((Number) row[3]).longValue() : null;
+                    Long previousQuantity = row[4] != null ? ((Number) row[4]).longValue() : null;
+                    Long quantityChange = quantity == null ? null
+                            : previousQuantity == null ? quantity : quantity - previousQuantity;
+                    LocalDateTime revisionDate = LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(((Number) row[2]).longValue()), ZoneId.systemDefault());
+                    return new QuantityHistoryDto((String) row[1], revisionDate, quantity, previousQuantity, quantityChange);
+                })
+                .toList();
+
+        String nextCursor = rows.size() > size ? rows.get(size - 1)[0].toString() : null;
+        return Response.ok(new KeysetResponse<>(revisions, size, nextCursor)).build();
+    }
+
+    /**
+     * Ajusta el stock con un UPDATE condicional y registra el movimiento en la misma sentencia,
+     * sin leer la cantidad en Java. La condicion sobre minimum_stock se evalua sobre la fila ya
+     * bloqueada por el UPDATE, asi que las llamadas concurrentes no pierden actualizaciones.
+     * Envers no ve el UPDATE nativo, por eso la revision se escribe con
+     * {@link AuditOutbox#recordNative}.
+     */
     public Response updateQuantity(@NotNull Long idProducto, @NotNull Long quantity) {
+        List<?> updated = em.createNativeQuery("""
+                        WITH updated AS (
+                            UPDATE producto
+                            SET quantity = quantity + :delta,
+                                version  = version + 1
+                            WHERE id = :id
+                              AND is_active = true
+                              AND quantity + :delta >= minimum_stock
+                            RETURNING id, quantity
+                        )
+                        INSERT INTO stock_movements (id, producto_id, username, date, actualQuantity, quantityChange)
+                        SELECT nextval('stock_movements_seq'), id, CAST(:username AS VARCHAR), CAST(:date AS TIMESTAMP), quantity, :delta
+                        FROM updated
+                        RETURNING actualQuantity
+                        """)
+                .setParameter("delta", quantity)
+                .setParameter("id", idProducto)
+                .setParameter("username", jwt.getClaim("name"))
+                .setParameter("date", LocalDateTime.now())
+                .getResultList();
+
         Producto producto = Producto.findById(idProducto);
         if (producto == null || !producto.isActive) {
             throw new NotFoundException("Product not found");
         }
-
-        if (producto.quantity + quantity < producto.minimumStock) {
+        if (updated.isEmpty()) {
             throw new StockExceededException("Minimum stock exceeded");
         }
+        serviceMetrics.stockMovementsWritten("adjust", 1);
+        auditOutbox.recordNative(idProducto, RevisionType.MOD);
 
-        var stockMovement = new StockMovement();
-        stockMovement.producto = producto;
-        stockMovement.actualQuantity = producto.quantity;
-        stockMovement.username = jwt.getClaim("name");
-        stockMovement.date = LocalDateTime.now();
-        stockMovement.quantityChange = quantity;
-        producto.quantity += quantity;
-        stockMovement.actualQuantity = producto.quantity;
-        stockMovement.persist();
+        dashboardCache.invalidateAfterCommit();
         return Response.ok(producto).build();
     }
+
+    /**
+     * Aplica un lote de ajustes de stock en una sola transaccion. Los productos se bloquean en
+     * orden de id con una sola consulta, cada ajuste se valida contra la cantidad acumulada del
+     * lote y los UPDATE/INSERT resultantes se envian con JDBC batching al hacer flush.
+     */
+    public Response applyStockMovements(@NotNull @Valid List<StockMovementBatchItemDto> items) {
+        if (items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new GeneralException(Response.Status.BAD_REQUEST, "El lote debe tener entre 1 y " + MAX_BATCH_SIZE + " movimientos");
+        }
+
+        List<Long> ids = items.stream().map(StockMovementBatchItemDto::productId).distinct().sorted().toList();
+        Map<Long, Producto> productos = em.createQuery("from Producto where id in :ids and isActive = true order by id", Producto.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .collect(Collectors.toMap(producto -> producto.id, producto -> producto));
+        serviceMetrics.recordRows("producto.lockBatch", productos.size());
+
+        String username = jwt.getClaim("name");
+        LocalDateTime now = LocalDateTime.now();
+        List<StockMovementBatchResultDto> results = new ArrayList<>(items.size());
+        for (StockMovementBatchItemDto item : items) {
+            Producto producto = productos.get(item.productId());
+            if (producto == null) {
+                results.add(new StockMovementBatchResultDto(item.productId(), item.delta(), StockMovementBatchResultDto.Status.NOT_FOUND, null));
+                continue;
+            }
+            if (producto.quantity + item.delta() < producto.minimumStock) {
+                results.add(new StockMovementBatchResultDto(item.productId(), item.delta(), StockMovementBatchResultDto.Status.MINIMUM_STOCK_EXCEEDED, producto.quantity));
+                continue;
+            }
+
+            producto.quantity += item.delta();
+            var stockMovement = new StockMovement();
+            stockMovement.producto = producto;
+            stockMovement.username = username;
+            stockMovement.date = now;
+            stockMovement.quantityChange = item.delta();
+            stockMovement.actualQuantity = producto.quantity;
+            stockMovement.persist();
+            results.add(new StockMovementBatchResultDto(item.productId(), item.delta(), StockMovementBatchResultDto.Status.APPLIED, producto.quantity));
+        }
+
+        List<Long> appliedIds = results.stream()
+                .filter(result -> result.status() == StockMovementBatchResultDto.Status.APPLIED)
+                .map(StockMovementBatchResultDto::productId)
+                .toList();
+        serviceMetrics.stockMovementsWritten("batch", appliedIds.size());
+        appliedIds = appliedIds.stream().distinct().toList();
+        if (!appliedIds.isEmpty()) {
+            auditOutbox.record(appliedIds, RevisionType.MOD);
+            dashboardCache.invalidateAfterCommit();
+        }
+        return Response.ok(results).build();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    /**
+     * Cursor del historial con formato {@code <fecha ISO>,<id>}.
+     */
+    record HistoryCursor(LocalDateTime date, Long id) {
+        static HistoryCursor parse(String value) {
+            int separator = value.lastIndexOf(',');
+            try {
+                return new HistoryCursor(
+                        LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new GeneralException(Response.Status.BAD_REQUEST, "Cursor invalido: " + value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return date + "," + id;
+        }
+    }
 }
@@ -0,0 +1,43 @@
+CREATE TABLE stock_movement_rollup
+(
+    producto_id BIGINT   NOT NULL,
+    day_of_week SMALLINT NOT NULL,
+    movements   BIGINT   NOT NULL DEFAULT 0,
+    CONSTRAINT pk_stock_movement_rollup PRIMARY KEY (producto_id, day_of_week)
+);
+
+ALTER TABLE stock_movement_rollup
+    ADD CONSTRAINT FK_STOCK_MOVEMENT_ROLLUP_ON_PRODUCTO FOREIGN KEY (producto_id) REFERENCES producto (id) ON DELETE CASCADE;
+
+INSERT INTO stock_movement_rollup (producto_id, day_of_week, movements)
+SELECT producto_id, EXTRACT(ISODOW FROM date), COUNT(*)
+FROM stock_movements
+WHERE producto_id IS NOT NULL
+  AND date IS NOT NULL
+GROUP BY producto_id, EXTRACT(ISODOW FROM date);
+
+CREATE OR REPLACE FUNCTION stock_movement_rollup_apply() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') AND OLD.producto_id IS NOT NULL AND OLD.date IS NOT NULL THEN
+        UPDATE stock_movement_rollup
+        SET movements = movements - 1
+        WHERE producto_id = OLD.producto_id
+          AND day_of_week = EXTRACT(ISODOW FROM OLD.date);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.producto_id IS NOT NULL AND NEW.date IS NOT NULL THEN
+        INSERT INTO stock_movement_rollup (producto_id, day_of_week, movements)
+        VALUES (NEW.producto_id, EXTRACT(ISODOW FROM NEW.date), 1)
+        ON CONFLICT (producto_id, day_of_week) DO UPDATE SET movements = stock_movement_rollup.movements + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_stock_movement_rollup
+    AFTER INSERT OR UPDATE OF producto_id, date OR DELETE
+    ON stock_movements
+    FOR EACH ROW
+EXECUTE FUNCTION stock_movement_rollup_apply();
@@ -0,0 +1,15 @@
+-- Listado de productos: solo activos, ordenados por id desc y paginados
+CREATE INDEX idx_producto_active_id ON producto (id DESC) WHERE is_active;
+
+-- Filtro por prefijo de nombre: lower(name) LIKE 'prefijo%'
+CREATE INDEX idx_producto_active_lower_name ON producto (lower(name) text_pattern_ops) WHERE is_active;
+
+-- Filtros por categoria y rango de precio
+CREATE INDEX idx_producto_active_category ON producto (category, id DESC) WHERE is_active;
+CREATE INDEX idx_producto_active_price ON producto (price) WHERE is_active;
+
+-- Historial de un producto ordenado por fecha y FK de stock_movements
+CREATE INDEX idx_stock_movements_producto_date ON stock_movements (producto_id, date DESC);
+
+-- Ranking de productos por ventana de tiempo (index-only scan)
+CREATE INDEX idx_stock_movements_date ON stock_movements (date) INCLUDE (producto_id);
@@ -0,0 +1,4 @@
+-- El historial pagina por (date, id) descendente para que el cursor sea estable
+DROP INDEX IF EXISTS idx_stock_movements_producto_date;
+
+CREATE INDEX idx_stock_movements_producto_date_id ON stock_movements (producto_id, date DESC, id DESC);
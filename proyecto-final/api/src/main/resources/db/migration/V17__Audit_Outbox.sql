@@ -0,0 +1,18 @@
+CREATE TABLE audit_outbox
+(
+    id            BIGINT GENERATED ALWAYS AS IDENTITY,
+    revtype       SMALLINT     NOT NULL,
+    revtstmp      BIGINT       NOT NULL,
+    username      VARCHAR(100),
+    producto_id   BIGINT       NOT NULL,
+    name          VARCHAR(255),
+    description   VARCHAR(255),
+    category      VARCHAR(255),
+    price         DOUBLE PRECISION,
+    cost          DOUBLE PRECISION,
+    profit        DOUBLE PRECISION,
+    quantity      BIGINT,
+    is_active     BOOLEAN,
+    minimum_stock BIGINT       NOT NULL,
+    CONSTRAINT pk_audit_outbox PRIMARY KEY (id)
+);
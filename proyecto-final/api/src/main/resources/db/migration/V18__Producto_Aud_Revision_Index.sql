@@ -0,0 +1,2 @@
+-- Las revisiones de un producto se paginan por rev descendente; la PK (rev, id) no sirve para filtrar por id
+CREATE INDEX idx_producto_aud_id_rev ON producto_aud (id, rev DESC) INCLUDE (quantity);
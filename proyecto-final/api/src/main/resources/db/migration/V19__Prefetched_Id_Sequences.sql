@@ -0,0 +1,12 @@
+-- Los ids de producto y stock_movements se piden en bloques desde la aplicacion
+-- (PrefetchedSequenceGenerator), asi que las secuencias pasan a avanzar de a uno. Se salta el
+-- ultimo bloque que pudo reservar el optimizador pooled-lo (last_value .. last_value + 49).
+SELECT setval('producto_seq',
+              GREATEST((SELECT last_value + 50 FROM producto_seq), (SELECT COALESCE(MAX(id), 0) + 1 FROM producto)),
+              false);
+ALTER SEQUENCE producto_seq INCREMENT BY 1;
+
+SELECT setval('stock_movements_seq',
+              GREATEST((SELECT last_value + 50 FROM stock_movements_seq), (SELECT COALESCE(MAX(id), 0) + 1 FROM stock_movements)),
+              false);
+ALTER SEQUENCE stock_movements_seq INCREMENT BY 1;
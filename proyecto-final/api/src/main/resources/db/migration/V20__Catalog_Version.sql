@@ -0,0 +1,33 @@
+-- Contador de cambios del catalogo para los ETag de las lecturas. Se reparte en 16 filas para que
+-- las escrituras concurrentes no esperen todas el bloqueo de una misma fila; la version es la suma.
+CREATE TABLE catalog_version
+(
+    slot    SMALLINT NOT NULL,
+    version BIGINT   NOT NULL DEFAULT 0,
+    CONSTRAINT pk_catalog_version PRIMARY KEY (slot)
+);
+
+INSERT INTO catalog_version (slot)
+SELECT generate_series(0, 15);
+
+CREATE OR REPLACE FUNCTION catalog_version_bump() RETURNS TRIGGER AS
+$$
+BEGIN
+    UPDATE catalog_version
+    SET version = version + 1
+    WHERE slot = pg_backend_pid() % 16;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_producto_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON producto
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_version_bump();
+
+CREATE TRIGGER trg_stock_movements_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON stock_movements
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_version_bump();
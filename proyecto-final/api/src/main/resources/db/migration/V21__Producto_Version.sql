@@ -0,0 +1,3 @@
+-- Bloqueo optimista de Producto (@Version); Envers no audita esta columna
+ALTER TABLE producto
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,191 @@
+package com.randaegarcia;
+
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import com.randaegarcia.service.AuditOutboxWorker;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Modo de auditoria asincrono: las escrituras solo dejan eventos en audit_outbox y el worker
+ * los pasa a revinfo/producto_aud. El intervalo del worker es largo para que la prueba decida
+ * cuando se procesa el outbox, como si la aplicacion se hubiera detenido antes de hacerlo.
+ */
+@QuarkusTest
+@TestProfile(AsyncAuditTest.AsyncAuditProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AsyncAuditTest {
+
+    public static class AsyncAuditProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "audit.mode", "async",
+                    "quarkus.hibernate-envers.active", "false",
+                    "audit.async.poll-interval", "1H"
+            );
+        }
+    }
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    AuditOutboxWorker worker;
+
+    @BeforeEach
+    @Transactional
+    void setupTestData() {
+        em.createNativeQuery("DELETE FROM audit_outbox").executeUpdate();
+        em.createNativeQuery("DELETE FROM producto_aud").executeUpdate();
+        StockMovement.deleteAll();
+        Producto.deleteAll();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Writes should be captured in the outbox and audited once the worker drains it")
+    void testOutboxIsDrainedIntoAuditTables() {
+        long id = createProducto("Producto Auditado");
+        given()
+                .pathParam("id", id)
+                .queryParam("quantity", 5)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .then()
+                .statusCode(200);
+
+        // Nada se escribe en las tablas de auditoria dentro de la peticion
+        assertEquals(2L, count("SELECT COUNT(*) FROM audit_outbox WHERE producto_id = " + id));
+        assertEquals(0L, count("SELECT COUNT(*) FROM producto_aud WHERE id = " + id));
+
+        assertEquals(2, worker.drain());
+
+        assertEquals(0L, count("SELECT COUNT(*) FROM audit_outbox"));
+        assertEquals(1L, count("SELECT COUNT(*) FROM producto_aud WHERE id = " + id + " AND revtype = 0 AND quantity = 20"));
+        assertEquals(1L, count("SELECT COUNT(*) FROM producto_aud WHERE id = " + id + " AND revtype = 1 AND quantity = 25"));
+        assertEquals(0L, count("""
+                SELECT COUNT(*) FROM producto_aud a
+                LEFT JOIN revinfo r ON r.rev = a.rev
+                WHERE a.id = %d AND r.username IS NULL
+                """.formatted(id)));
+
+        given()
+                .pathParam("id", id)
+                .when()
+                .get("/productos/{id}/revisions")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(2))
+                .body("content[0].quantity", equalTo(25))
+                .body("content[0].previousQuantity", equalTo(20))
+                .body("content[0].quantityChange", equalTo(5));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Every write should produce exactly one audit row")
+    void testNoAuditRowsAreLost() {
+        long id = createProducto("Producto Carga");
+        int writes = 50;
+        for (int i = 0; i < writes; i++) {
+            given()
+                    .pathParam("id", id)
+                    .queryParam("quantity", 1)
+                    .when()
+                    .put("/productos/{id}/update-quantity")
+                    .then()
+                    .statusCode(200);
+        }
+
+        assertEquals(writes + 1, worker.drain());
+        assertEquals(writes + 1L, count("SELECT COUNT(*) FROM producto_aud WHERE id = " + id));
+        assertEquals(writes + 1L, count("SELECT COUNT(DISTINCT rev) FROM producto_aud WHERE id = " + id));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Events left in the outbox across a restart should be audited exactly once, in order")
+    void testOutboxSurvivesRestart() throws InterruptedException {
+        // Lo que se escribe con el worker detenido queda en el outbox, como si la aplicacion se
+        // hubiera caido antes de procesarlo
+        worker.stop();
+        long id;
+        try {
+            id = createProducto("Producto Reinicio");
+            for (int i = 0; i < 5; i++) {
+                given()
+                        .pathParam("id", id)
+                        .queryParam("quantity", 1)
+                        .when()
+                        .put("/productos/{id}/update-quantity")
+                        .then()
+                        .statusCode(200);
+            }
+            assertEquals(6L, count("SELECT COUNT(*) FROM audit_outbox WHERE producto_id = " + id));
+            assertEquals(0L, count("SELECT COUNT(*) FROM producto_aud WHERE id = " + id));
+        } finally {
+            worker.start();
+        }
+
+        // Al arrancar el worker procesa el outbox de inmediato, los seis eventos en un mismo lote
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("SELECT COUNT(*) FROM audit_outbox") > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0L, count("SELECT COUNT(*) FROM audit_outbox"));
+        assertEquals(0, worker.drain());
+
+        assertEquals(6L, count("SELECT COUNT(*) FROM producto_aud WHERE id = " + id));
+        assertEquals(6L, count("SELECT COUNT(DISTINCT rev) FROM producto_aud WHERE id = " + id));
+        List<Long> quantities = QuarkusTransaction.requiringNew().call(() -> em.createNativeQuery(
+                        "SELECT quantity FROM producto_aud WHERE id = :id ORDER BY rev", Long.class)
+                .setParameter("id", id)
+                .getResultList());
+        assertEquals(List.of(20L, 21L, 22L, 23L, 24L, 25L), quantities);
+    }
+
+    private long createProducto(String name) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "name": "%s",
+                            "description": "Producto para auditoria",
+                            "category": "Electronics",
+                            "price": 150.0,
+                            "cost": 75.0,
+                            "profit": 75.0,
+                            "quantity": 20,
+                            "minimumStock": 5
+                        }
+                        """.formatted(name))
+                .when()
+                .post("/productos")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+    }
+
+    private long count(String sql) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                ((Number) em.createNativeQuery(sql).getSingleResult()).longValue());
+    }
+}
@@ -3,6 +3,8 @@ package com.randaegarcia;
 import com.randaegarcia.domain.model.ProductCategory;
 import com.randaegarcia.domain.model.Producto;
 import com.randaegarcia.domain.model.StockMovement;
+import com.randaegarcia.service.DashboardCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
@@ -29,6 +31,9 @@ class DashboardControllerTest {
     @Inject
     EntityManager em;
 
+    @Inject
+    DashboardCache dashboardCache;
+
     @BeforeEach
     @Transactional
     void setupTestData() {
@@ -36,6 +41,8 @@ class DashboardControllerTest {
 
         StockMovement.deleteAll();
         Producto.deleteAll();
+        // Los datos de prueba se escriben sin pasar por ProductoService
+        dashboardCache.invalidateAll();
 
         Random random = new Random(42); // Fixed seed for consistent tests
         ProductCategory[] categories = ProductCategory.values();
@@ -324,4 +331,177 @@ class DashboardControllerTest {
 
         log.info("Data consistency verified - Total movements: {}", totalFromDays);
     }
+
+    @Test
+    @Order(10)
+    @DisplayName("Should keep the dashboard rollup in sync with stock updates and deletions")
+    void testRollupFollowsWrites() {
+        Producto producto = Producto.find("isActive = true order by id").firstResult();
+        long movementsBefore = sumMovementsPerDay();
+
+        given()
+                .pathParam("id", producto.id)
+                .queryParam("quantity", 3)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .then()
+                .statusCode(200);
+
+        assertEquals(movementsBefore + 1, sumMovementsPerDay(),
+                "A stock update should be counted without rescanning movements");
+
+        long productMovements = StockMovement.count("producto.id = ?1", producto.id);
+        given()
+                .pathParam("id", producto.id)
+                .when()
+                .delete("/productos/{id}")
+                .then()
+                .statusCode(200);
+
+        assertEquals(movementsBefore + 1 - productMovements, sumMovementsPerDay(),
+                "Movements of a deleted product should no longer be counted");
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Should return every KPI in the summary consistent with the individual endpoints")
+    void testSummaryMatchesIndividualEndpoints() {
+        var summary = given().get("/dashboard/summary")
+                .then().statusCode(200).contentType(ContentType.JSON).extract().jsonPath();
+
+        var movementsPerDay = given().get("/dashboard/movements-per-day")
+                .then().statusCode(200).extract().jsonPath().getList("", Long.class);
+        var movementsPerCategory = given().get("/dashboard/movements-per-category")
+                .then().statusCode(200).extract().jsonPath().getMap("", String.class, Long.class);
+        var mostMoved = given().get("/dashboard/most-moved-product")
+                .then().statusCode(200).extract().jsonPath().getMap("");
+        var leastDemanded = given().get("/dashboard/least-demanded-category")
+                .then().statusCode(200).extract().jsonPath().getMap("");
+
+        assertEquals(movementsPerDay, summary.getList("movementsPerDay", Long.class));
+        assertEquals(movementsPerCategory, summary.getMap("movementsPerCategory", String.class, Long.class));
+        assertEquals(mostMoved, summary.getMap("mostMovedProduct"));
+        assertEquals(leastDemanded, summary.getMap("leastDemandedCategory"));
+        assertFalse(summary.getMap("leastMovedProduct").isEmpty());
+        assertFalse(summary.getMap("mostDemandedCategory").isEmpty());
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Should rank products by movements with limit and time window")
+    void testProductRanking() {
+        var mostMoved = given().get("/dashboard/most-moved-product")
+                .then().statusCode(200).extract().jsonPath();
+
+        given()
+                .queryParam("order", "desc")
+                .queryParam("limit", 3)
+                .when()
+                .get("/dashboard/products/ranking")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(3))
+                .body("[0].id", notNullValue())
+                .body("[0].quantity", equalTo(mostMoved.getInt("quantity")))
+                .body("[0].quantity", greaterThanOrEqualTo(1));
+
+        // Solo el ultimo dia de movimientos cae dentro de la ventana
+        LocalDateTime lastDay = LocalDateTime.now().toLocalDate().atStartOfDay();
+        var windowed = given()
+                .queryParam("from", lastDay.toString())
+                .queryParam("limit", 100)
+                .when()
+                .get("/dashboard/products/ranking")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("quantity", Long.class);
+        long expected = StockMovement.count("date >= ?1 and producto.isActive = true", lastDay);
+        assertEquals(expected, windowed.stream().mapToLong(Long::longValue).sum());
+
+        given()
+                .queryParam("order", "sideways")
+                .when()
+                .get("/dashboard/products/ranking")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Should answer 304 while nothing changes and a new ETag after a stock movement")
+    void testConditionalGet() {
+        String etag = given()
+                .when()
+                .get("/dashboard/summary")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/dashboard/movements-per-day")
+                .then()
+                .statusCode(304);
+
+        Producto product = Producto.find("isActive = true").firstResult();
+        given()
+                .pathParam("id", product.id)
+                .queryParam("quantity", 1)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/dashboard/summary")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Should not tag a cached summary with the catalog version of a later write")
+    void testETagMatchesCachedBody() {
+        var before = given().get("/dashboard/summary").then().statusCode(200).extract();
+        String etag = before.header("ETag");
+        long movements = before.jsonPath().getList("movementsPerDay", Long.class)
+                .stream().mapToLong(Long::longValue).sum();
+
+        // Se escribe sin pasar por ProductoService, como si el movimiento viniera de otra instancia:
+        // este cache no se invalida, pero la version del catalogo cambia
+        QuarkusTransaction.requiringNew().run(() -> {
+            Producto producto = Producto.find("isActive = true").firstResult();
+            StockMovement stockMovement = new StockMovement();
+            stockMovement.producto = producto;
+            stockMovement.date = LocalDateTime.now();
+            stockMovement.quantityChange = 1L;
+            stockMovement.actualQuantity = producto.quantity + 1;
+            stockMovement.username = "test-user";
+            stockMovement.persist();
+        });
+
+        var after = given().get("/dashboard/summary").then().statusCode(200).extract();
+        String newEtag = after.header("ETag");
+        assertNotEquals(etag, newEtag);
+        assertEquals(movements + 1, after.jsonPath().getList("movementsPerDay", Long.class)
+                .stream().mapToLong(Long::longValue).sum());
+
+        given()
+                .header("If-None-Match", newEtag)
+                .when()
+                .get("/dashboard/summary")
+                .then()
+                .statusCode(304);
+    }
+
+    private long sumMovementsPerDay() {
+        return given().get("/dashboard/movements-per-day")
+                .then().statusCode(200).extract().jsonPath().getList("", Long.class)
+                .stream().mapToLong(Long::longValue).sum();
+    }
 }
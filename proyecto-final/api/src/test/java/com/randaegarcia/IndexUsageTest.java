@@ -0,0 +1,236 @@
+package com.randaegarcia;
+
+import com.randaegarcia.service.DashboardCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica con EXPLAIN que las sentencias que ProductoService y DashboardService envian de verdad
+ * (capturadas con {@link SqlCapture} al llamar a los endpoints) usan los indices de V15 y V16.
+ * Las tablas se llenan con suficientes filas para que el planificador, con su configuracion por
+ * defecto, elija el indice por costo y no solo porque puede usarlo.
+ */
+@Slf4j
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsageTest {
+    private static final int PRODUCTS = 20_000;
+    private static final int PRODUCTS_WITH_MOVEMENTS = 1_000;
+    private static final int MOVEMENTS = 200_000;
+    private static final Pattern OFFSET = Pattern.compile("\\boffset \\?");
+    private static final Pattern LIMIT = Pattern.compile("\\b(fetch first|limit) \\?");
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    DashboardCache dashboardCache;
+
+    private Long productoId;
+
+    @BeforeAll
+    void seed() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            clear();
+            // El rollup se llena al final con una sola consulta en lugar del trigger fila por fila
+            em.createNativeQuery("ALTER TABLE stock_movements DISABLE TRIGGER trg_stock_movement_rollup").executeUpdate();
+            em.createNativeQuery("""
+                    INSERT INTO producto (id, name, description, category, price, cost, profit, quantity, minimum_stock, is_active, version)
+                    SELECT nextval('producto_seq'), 'Indice ' || lpad(g::text, 6, '0'), 'Producto de indice',
+                           (ARRAY['Electronics', 'Fitness', 'Clothing', 'Accessories'])[g % 4 + 1],
+                           (g % 10000)::float8, 1, 1, 100, 0, g % 10 <> 0, 0
+                    FROM generate_series(1, :products) g
+                    """).setParameter("products", PRODUCTS).executeUpdate();
+            em.createNativeQuery("""
+                    INSERT INTO stock_movements (id, producto_id, username, date, actualQuantity, quantityChange)
+                    SELECT nextval('stock_movements_seq'), p.id, 'seed',
+                           TIMESTAMP '2025-01-01 00:00:00' + (g % 365) * INTERVAL '1 day' + (g % 86400) * INTERVAL '1 second',
+                           100, 1
+                    FROM generate_series(1, :movements) g
+                    JOIN (SELECT id, row_number() OVER (ORDER BY id) AS n
+                          FROM producto
+                          WHERE is_active
+                          ORDER BY id
+                          LIMIT :products) p ON p.n = g % :products + 1
+                    """)
+                    .setParameter("movements", MOVEMENTS)
+                    .setParameter("products", PRODUCTS_WITH_MOVEMENTS)
+                    .executeUpdate();
+            em.createNativeQuery("""
+                    INSERT INTO stock_movement_rollup (producto_id, day_of_week, movements)
+                    SELECT producto_id, EXTRACT(ISODOW FROM date), COUNT(*)
+                    FROM stock_movements
+                    GROUP BY producto_id, EXTRACT(ISODOW FROM date)
+                    """).executeUpdate();
+            em.createNativeQuery("ALTER TABLE stock_movements ENABLE TRIGGER trg_stock_movement_rollup").executeUpdate();
+            em.createNativeQuery("ANALYZE producto").executeUpdate();
+            em.createNativeQuery("ANALYZE stock_movements").executeUpdate();
+            em.createNativeQuery("ANALYZE stock_movement_rollup").executeUpdate();
+            productoId = ((Number) em.createNativeQuery("SELECT MIN(producto_id) FROM stock_movements").getSingleResult()).longValue();
+        });
+        dashboardCache.invalidateAll();
+    }
+
+    @AfterAll
+    void cleanup() {
+        QuarkusTransaction.requiringNew().run(this::clear);
+        dashboardCache.invalidateAll();
+    }
+
+    private void clear() {
+        em.createNativeQuery("TRUNCATE stock_movements, stock_movement_rollup").executeUpdate();
+        em.createNativeQuery("DELETE FROM producto").executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Product listing is ordered by the active id index")
+    void testProductListing() {
+        List<String> sql = SqlCapture.during(() -> get("/productos"));
+
+        assertUsesIndex("idx_producto_active_id", statement(sql, "from producto", "order by"), 0.0);
+    }
+
+    @Test
+    @DisplayName("Name prefix filter uses the lower(name) pattern index")
+    void testNamePrefix() {
+        List<String> sql = SqlCapture.during(() -> get("/productos?name=Indice%200123"));
+
+        assertUsesIndex("idx_producto_active_lower_name", statement(sql, "count(", "from producto"), "indice 0123%", 0.0);
+        assertUsesIndex("idx_producto_active_lower_name", statement(sql, "from producto", "order by"), "indice 0123%", 0.0);
+    }
+
+    @Test
+    @DisplayName("Category filter uses the category index")
+    void testCategory() {
+        List<String> sql = SqlCapture.during(() -> get("/productos?category=Electronics"));
+
+        assertUsesIndex("idx_producto_active_category", statement(sql, "from producto", "order by"), "Electronics", 0.0);
+    }
+
+    @Test
+    @DisplayName("Price range filter uses the price index")
+    void testPriceRange() {
+        List<String> sql = SqlCapture.during(() -> get("/productos?minPrice=100&maxPrice=200"));
+
+        assertUsesIndex("idx_producto_active_price", statement(sql, "count(", "from producto"), 100.0, 200.0);
+    }
+
+    @Test
+    @DisplayName("Quantity history uses the (producto_id, date, id) index")
+    void testQuantityHistory() {
+        List<String> sql = SqlCapture.during(() -> get("/productos/" + productoId + "/history?before=2025-07-01T00:00,999999999"));
+
+        assertUsesIndex("idx_stock_movements_producto_date_id", statement(sql, "from stock_movements", "order by"),
+                productoId, productoId, "2025-07-01 00:00:00", "2025-07-01 00:00:00", 999999999L);
+    }
+
+    @Test
+    @DisplayName("Windowed product ranking uses the date index")
+    void testRankingWindow() {
+        dashboardCache.invalidateAll();
+        List<String> sql = SqlCapture.during(() -> get("/dashboard/products/ranking?from=2025-03-01T00:00:00&to=2025-03-02T00:00:00"));
+
+        assertUsesIndex("idx_stock_movements_date", statement(sql, "from stock_movements", "group by"),
+                "2025-03-01 00:00:00", "2025-03-02 00:00:00");
+    }
+
+    @Test
+    @DisplayName("Dashboard summary and ranking read the rollup, never stock_movements")
+    void testDashboardReadsRollup() {
+        dashboardCache.invalidateAll();
+        List<String> sql = SqlCapture.during(() -> {
+            get("/dashboard/summary");
+            get("/dashboard/products/ranking");
+        });
+
+        List<String> rollupStatements = sql.stream()
+                .filter(statement -> statement.toLowerCase(Locale.ROOT).contains("stock_movement_rollup"))
+                .toList();
+        assertEquals(2, rollupStatements.size(), "Expected summary and ranking statements in:\n" + sql);
+        for (String statement : rollupStatements) {
+            String plan = plan(statement);
+            assertFalse(Pattern.compile("on stock_movements\\b").matcher(plan).find(),
+                    "Expected plan to avoid stock_movements but was:\n" + plan);
+        }
+    }
+
+    private static void get(String path) {
+        given().when().get(path).then().statusCode(200);
+    }
+
+    private static String statement(List<String> sql, String... fragments) {
+        return sql.stream()
+                .filter(statement -> {
+                    String lower = statement.toLowerCase(Locale.ROOT);
+                    for (String fragment : fragments) {
+                        if (!lower.contains(fragment)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No statement with " + List.of(fragments) + " in:\n" + String.join("\n", sql)));
+    }
+
+    private void assertUsesIndex(String indexName, String sql, Object... filterValues) {
+        String plan = plan(sql, filterValues);
+        assertTrue(plan.contains(indexName), "Expected plan to use " + indexName + " but was:\n" + plan);
+    }
+
+    /**
+     * Plan de la sentencia con los mismos valores que envio el servicio. Los parametros de filtro
+     * van en el orden en que aparecen en el SQL; los de offset y limit, si los hay, son los de la
+     * primera pagina.
+     */
+    @SuppressWarnings("unchecked")
+    private String plan(String sql, Object... filterValues) {
+        List<Object> values = new ArrayList<>(List.of(filterValues));
+        String lower = sql.toLowerCase(Locale.ROOT);
+        if (OFFSET.matcher(lower).find()) {
+            values.add(0L);
+        }
+        if (LIMIT.matcher(lower).find()) {
+            values.add(11L);
+        }
+
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        assertEquals(parameters, values.size(), "Parameter count changed for:\n" + sql);
+
+        List<String> literals = values.stream()
+                .map(value -> value instanceof Number ? value.toString() : "'" + value.toString().replace("'", "''") + "'")
+                .toList();
+        return QuarkusTransaction.requiringNew().call(() -> {
+            em.createNativeQuery("PREPARE index_usage AS " + numbered).executeUpdate();
+            try {
+                String execute = literals.isEmpty() ? "" : "(" + String.join(", ", literals) + ")";
+                List<String> plan = em.createNativeQuery("EXPLAIN EXECUTE index_usage" + execute).getResultList();
+                String text = String.join("\n", plan);
+                log.info("Plan para:\n{}\n{}", sql, text);
+                return text;
+            } finally {
+                em.createNativeQuery("DEALLOCATE index_usage").executeUpdate();
+            }
+        });
+    }
+}
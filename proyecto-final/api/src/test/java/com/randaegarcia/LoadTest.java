@@ -0,0 +1,281 @@
+package com.randaegarcia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba de carga dentro del proceso de pruebas: reemplaza el plan de JMeter (api-productos-test.jmx)
+ * sin Keycloak ni el frontend, usando la misma base de datos y el mismo usuario embebido del perfil
+ * %test. Solo corre con {@code -Dloadtest=true}; se configura con:
+ * <ul>
+ *     <li>{@code loadtest.concurrency}: hilos concurrentes (8)</li>
+ *     <li>{@code loadtest.duration}: duracion ISO-8601 o en segundos (30)</li>
+ *     <li>{@code loadtest.mix}: pesos por operacion (create=10,list=50,update-stock=30,dashboard=10); tambien
+ *     acepta {@code stock-batch}, que envia {@code loadtest.batch-size} movimientos (50) a stock-movements:batch</li>
+ *     <li>{@code loadtest.output}: archivo JSON con el resultado (target/load-test-results.json)</li>
+ *     <li>{@code loadtest.read-path}: ruta de la operacion list (/productos; /reactive/productos para la ruta reactiva)</li>
+ * </ul>
+ * El JSON tiene throughput y p50/p95/p99 por operacion para comparar corridas entre si, las filas
+ * insertadas por segundo con ids del generador (productos y movimientos de create y stock-batch),
+ * el tamano de bloque {@code id.prefetch.*} y el {@code audit.mode} con que corrio.
+ */
+@Slf4j
+@QuarkusTest
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoadTest {
+    private static final int SEEDED_PRODUCTS = 200;
+    private static final long INITIAL_QUANTITY = 1_000_000L;
+
+    private final Map<String, IntSupplier> operations = new LinkedHashMap<>();
+    private final AtomicLong createdCounter = new AtomicLong();
+    private final AtomicLong insertedRows = new AtomicLong();
+    private List<Long> productIds;
+
+    @BeforeEach
+    void setup() {
+        productIds = QuarkusTransaction.requiringNew().call(() -> {
+            StockMovement.deleteAll();
+            Producto.deleteAll();
+            List<Long> ids = new ArrayList<>();
+            ProductCategory[] categories = ProductCategory.values();
+            for (int i = 0; i < SEEDED_PRODUCTS; i++) {
+                Producto producto = new Producto();
+                producto.name = "Carga " + i;
+                producto.description = "Producto de carga " + i;
+                producto.category = categories[i % categories.length];
+                producto.price = 10.0 + i;
+                producto.cost = 5.0 + i;
+                producto.profit = 5.0;
+                producto.quantity = INITIAL_QUANTITY;
+                producto.minimumStock = 0L;
+                producto.isActive = true;
+                producto.persist();
+                ids.add(producto.id);
+            }
+            return ids;
+        });
+
+        operations.put("create", this::create);
+        String readPath = System.getProperty("loadtest.read-path", "/productos");
+        operations.put("list", () -> given()
+                .queryParam("page", ThreadLocalRandom.current().nextInt(5))
+                .when()
+                .get(readPath)
+                .statusCode());
+        operations.put("update-stock", () -> given()
+                .pathParam("id", randomProductId())
+                .queryParam("quantity", ThreadLocalRandom.current().nextBoolean() ? 1 : -1)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .statusCode());
+        operations.put("stock-batch", this::stockBatch);
+        operations.put("dashboard", () -> given()
+                .when()
+                .get("/dashboard/summary")
+                .statusCode());
+    }
+
+    @Test
+    @DisplayName("Load mix should complete without server errors and write a report")
+    void runLoadMix() throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 8);
+        Duration duration = parseDuration(System.getProperty("loadtest.duration", "30"));
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", "create=10,list=50,update-stock=30,dashboard=10"));
+        File output = new File(System.getProperty("loadtest.output", "target/load-test-results.json"));
+
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            if (!operations.containsKey(operation)) {
+                throw new IllegalArgumentException("Operacion desconocida en loadtest.mix: " + operation);
+            }
+            weighted.addAll(Collections.nCopies(weight, operation));
+        });
+
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        mix.keySet().forEach(operation -> stats.put(operation, new Stats()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + duration.toNanos();
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        String operation = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+                        long begin = System.nanoTime();
+                        int status = operations.get(operation).getAsInt();
+                        stats.get(operation).record(System.nanoTime() - begin, status);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", elapsedSeconds);
+        report.put("mix", mix);
+        Config config = ConfigProvider.getConfig();
+        Map<String, Object> idPrefetch = new LinkedHashMap<>();
+        for (String sequence : List.of("producto_seq", "stock_movements_seq")) {
+            idPrefetch.put(sequence, config.getValue("id.prefetch." + sequence, Integer.class));
+        }
+        report.put("idPrefetch", idPrefetch);
+        report.put("auditMode", config.getValue("audit.mode", String.class));
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        Stats total = new Stats();
+        stats.forEach((operation, operationStats) -> {
+            perOperation.put(operation, operationStats.summary(elapsedSeconds));
+            total.merge(operationStats);
+        });
+        report.put("operations", perOperation);
+        report.put("total", total.summary(elapsedSeconds));
+        report.put("insertsPerSecond", insertedRows.get() / elapsedSeconds);
+
+        output.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+        log.info("Resultado de la prueba de carga en {}: {}", output.getAbsolutePath(), report.get("total"));
+
+        assertEquals(0L, total.serverErrors, "No request should fail with a 5xx");
+    }
+
+    private int create() {
+        long n = createdCounter.incrementAndGet();
+        int status = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "name": "Carga nuevo %d",
+                            "description": "Producto creado durante la carga",
+                            "category": "Electronics",
+                            "price": 20.0,
+                            "cost": 10.0,
+                            "profit": 10.0,
+                            "quantity": 100,
+                            "minimumStock": 0
+                        }
+                        """.formatted(n))
+                .when()
+                .post("/productos")
+                .statusCode();
+        if (status == 200) {
+            // El producto y su movimiento inicial
+            insertedRows.addAndGet(2);
+        }
+        return status;
+    }
+
+    private int stockBatch() {
+        int batchSize = Integer.getInteger("loadtest.batch-size", 50);
+        List<Map<String, Object>> items = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            items.add(Map.of("productId", randomProductId(), "delta", ThreadLocalRandom.current().nextBoolean() ? 1 : -1));
+        }
+        int status = given()
+                .contentType(ContentType.JSON)
+                .body(items)
+                .when()
+                .post("/productos/stock-movements:batch")
+                .statusCode();
+        if (status == 200) {
+            // Con INITIAL_QUANTITY ningun movimiento baja del stock minimo, todos se insertan
+            insertedRows.addAndGet(batchSize);
+        }
+        return status;
+    }
+
+    private long randomProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    private static Duration parseDuration(String value) {
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * Latencias de una operacion; se guardan todas para calcular percentiles exactos.
+     */
+    private static class Stats {
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors;
+        private long serverErrors;
+
+        synchronized void record(long nanos, int status) {
+            latencies.add(nanos);
+            if (status >= 400) {
+                errors++;
+            }
+            if (status >= 500) {
+                serverErrors++;
+            }
+        }
+
+        synchronized void merge(Stats other) {
+            latencies.addAll(other.latencies);
+            errors += other.errors;
+            serverErrors += other.serverErrors;
+        }
+
+        synchronized Map<String, Object> summary(double elapsedSeconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", sorted.length);
+            summary.put("errors", errors);
+            summary.put("throughputPerSecond", sorted.length / elapsedSeconds);
+            summary.put("p50Ms", percentile(sorted, 50));
+            summary.put("p95Ms", percentile(sorted, 95));
+            summary.put("p99Ms", percentile(sorted, 99));
+            summary.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
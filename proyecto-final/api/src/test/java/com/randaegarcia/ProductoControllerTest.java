@@ -3,6 +3,8 @@ package com.randaegarcia;
 import com.randaegarcia.domain.model.ProductCategory;
 import com.randaegarcia.domain.model.Producto;
 import com.randaegarcia.domain.model.StockMovement;
+import com.randaegarcia.service.ProductNameIndex;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
@@ -28,6 +31,9 @@ class ProductoControllerTest {
     @Inject
     EntityManager em;
 
+    @Inject
+    ProductNameIndex productNameIndex;
+
     @BeforeEach
     @Transactional
     void setupTestData() {
@@ -200,6 +206,72 @@ class ProductoControllerTest {
                 .body("empty", equalTo(true));
     }
 
+    @Test
+    @Order(25)
+    @DisplayName("Should page with the keyset cursor the same way as with offsets")
+    void testFindAllWithKeysetCursor() {
+        Response firstPage = given()
+                .queryParam("size", 5)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(5))
+                .body("nextCursor", notNullValue())
+                .extract().response();
+
+        String cursor = firstPage.jsonPath().getString("nextCursor");
+        List<Integer> offsetIds = given()
+                .queryParam("page", 1)
+                .queryParam("size", 5)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("content.id", Integer.class);
+
+        given()
+                .queryParam("after", cursor)
+                .queryParam("size", 5)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(200)
+                .body("content.id", equalTo(offsetIds))
+                .body("totalElements", equalTo(15));
+
+        // La ultima pagina no tiene cursor siguiente
+        given()
+                .queryParam("page", 2)
+                .queryParam("size", 5)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(200)
+                .body("last", equalTo(true))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("Should reject a page size smaller than one")
+    void testFindAllInvalidSize() {
+        given()
+                .queryParam("size", 0)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(400);
+
+        given()
+                .queryParam("size", 0)
+                .queryParam("after", Long.MAX_VALUE)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(400);
+    }
+
     // ================= TESTS FOR GET /productos/{id} (findById) =================
 
     @Test
@@ -304,6 +376,612 @@ class ProductoControllerTest {
                 .statusCode(404);
     }
 
+    @Test
+    @Order(26)
+    @DisplayName("Should page history with the before cursor")
+    void testProductHistoryCursor() {
+        Producto product = Producto.find("isActive = true").firstResult();
+        assertNotNull(product);
+
+        for (int i = 1; i <= 3; i++) {
+            given()
+                    .pathParam("id", product.id)
+                    .queryParam("quantity", i)
+                    .when()
+                    .put("/productos/{id}/update-quantity")
+                    .then()
+                    .statusCode(200);
+        }
+
+        Response firstPage = given()
+                .pathParam("id", product.id)
+                .queryParam("size", 2)
+                .when()
+                .get("/productos/{id}/history")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(2))
+                .body("content[0].quantityChange", equalTo(3))
+                .body("totalElements", equalTo(3))
+                .body("nextCursor", notNullValue())
+                .extract().response();
+
+        given()
+                .pathParam("id", product.id)
+                .queryParam("size", 2)
+                .queryParam("before", firstPage.jsonPath().getString("nextCursor"))
+                .when()
+                .get("/productos/{id}/history")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1))
+                .body("content[0].quantityChange", equalTo(1))
+                .body("totalElements", equalTo(3))
+                .body("last", equalTo(true));
+
+        given()
+                .pathParam("id", product.id)
+                .queryParam("before", "no-es-un-cursor")
+                .when()
+                .get("/productos/{id}/history")
+                .then()
+                .statusCode(400);
+
+        given()
+                .pathParam("id", product.id)
+                .queryParam("size", 0)
+                .when()
+                .get("/productos/{id}/history")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("Should page Envers revisions by rev with previous quantity and change")
+    void testProductRevisionsKeyset() {
+        String productJson = """
+            {
+                "name": "Producto Revisiones",
+                "description": "Producto para prueba de revisiones",
+                "category": "Electronics",
+                "price": 200.0,
+                "cost": 100.0,
+                "profit": 100.0,
+                "quantity": 15,
+                "minimumStock": 2
+            }
+            """;
+        Long productId = given()
+                .contentType(ContentType.JSON)
+                .body(productJson)
+                .when()
+                .post("/productos")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getLong("id");
+
+        for (long quantity : new long[]{20, 12}) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(String.format("""
+                        {
+                            "id": %d,
+                            "name": "Producto Revisiones",
+                            "description": "Producto para prueba de revisiones",
+                            "category": "Electronics",
+                            "price": 200.0,
+                            "cost": 100.0,
+                            "profit": 100.0,
+                            "quantity": %d,
+                            "minimumStock": 2
+                        }
+                        """, productId, quantity))
+                    .when()
+                    .put("/productos")
+                    .then()
+                    .statusCode(200);
+        }
+
+        Response firstPage = given()
+                .pathParam("id", productId)
+                .queryParam("size", 2)
+                .when()
+                .get("/productos/{id}/revisions")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(2))
+                .body("content[0].quantity", equalTo(12))
+                .body("content[0].previousQuantity", equalTo(20))
+                .body("content[0].quantityChange", equalTo(-8))
+                .body("content[1].quantity", equalTo(20))
+                .body("content[1].previousQuantity", equalTo(15))
+                .body("content[1].quantityChange", equalTo(5))
+                .body("nextCursor", notNullValue())
+                .extract().response();
+
+        given()
+                .pathParam("id", productId)
+                .queryParam("size", 2)
+                .queryParam("before", firstPage.jsonPath().getInt("nextCursor"))
+                .when()
+                .get("/productos/{id}/revisions")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1))
+                .body("content[0].quantity", equalTo(15))
+                .body("content[0].previousQuantity", nullValue())
+                .body("content[0].quantityChange", equalTo(15))
+                .body("nextCursor", nullValue());
+
+        given()
+                .pathParam("id", 999999)
+                .when()
+                .get("/productos/{id}/revisions")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("Should audit quantity adjustments made with update-quantity")
+    void testUpdateQuantityCreatesRevision() {
+        Producto product = Producto.find("isActive = true").firstResult();
+        assertNotNull(product);
+
+        given()
+                .pathParam("id", product.id)
+                .queryParam("quantity", 4)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .then()
+                .statusCode(200);
+        given()
+                .pathParam("id", product.id)
+                .queryParam("quantity", -2)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .then()
+                .statusCode(200);
+
+        given()
+                .pathParam("id", product.id)
+                .when()
+                .get("/productos/{id}/revisions")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(3))
+                .body("content[0].quantity", equalTo(product.quantity.intValue() + 2))
+                .body("content[0].quantityChange", equalTo(-2))
+                .body("content[1].quantity", equalTo(product.quantity.intValue() + 4))
+                .body("content[1].quantityChange", equalTo(4))
+                .body("content[1].username", notNullValue())
+                .body("content[2].quantity", equalTo(product.quantity.intValue()));
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("Should stream active products and stock movements as NDJSON and CSV")
+    void testExport() {
+        String ndjson = given()
+                .when()
+                .get("/productos/export")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(15, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"id\":"));
+        assertTrue(lines.stream().allMatch(line -> line.contains("\"minimumStock\":")));
+
+        String csv = given()
+                .queryParam("format", "csv")
+                .when()
+                .get("/productos/export")
+                .then()
+                .statusCode(200)
+                .contentType("text/csv")
+                .extract().asString();
+        List<String> rows = csv.lines().toList();
+        assertEquals(16, rows.size());
+        assertEquals("id,name,description,category,price,cost,profit,quantity,minimumStock", rows.get(0));
+
+        Producto product = Producto.find("isActive = true").firstResult();
+        for (int i = 1; i <= 3; i++) {
+            given()
+                    .pathParam("id", product.id)
+                    .queryParam("quantity", i)
+                    .when()
+                    .put("/productos/{id}/update-quantity")
+                    .then()
+                    .statusCode(200);
+        }
+        String movements = given()
+                .when()
+                .get("/stock-movements/export")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+        assertEquals(3, movements.lines().count());
+        assertTrue(movements.contains("\"productoId\":" + product.id));
+
+        given()
+                .queryParam("format", "xml")
+                .when()
+                .get("/stock-movements/export")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("Should import CSV and NDJSON bodies and report rejected rows")
+    void testImport() {
+        String csv = """
+                name,description,category,price,cost,profit,quantity,minimumStock
+                Importado 01,"Descripcion, con coma",Electronics,100.0,50.0,50.0,10,1
+                Importado 02,Descripcion importada,Fitness,80.0,40.0,40.0,5,0
+                Importado 03,Descripcion importada,Clothing,60.0,30.0,30.0,7,2
+                Producto Test 01,Nombre existente,Clothing,60.0,30.0,30.0,7,2
+                Importado 03,Repetido en el archivo,Clothing,60.0,30.0,30.0,7,2
+                Importado 04,Precio negativo,Clothing,-1.0,30.0,30.0,7,2
+                Importado 05,Categoria invalida,Food,60.0,30.0,30.0,7,2
+                """;
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/productos/import")
+                .then()
+                .statusCode(200)
+                .body("received", equalTo(7))
+                .body("imported", equalTo(3))
+                .body("rejected", equalTo(4))
+                .body("errors.row", containsInAnyOrder(4, 5, 6, 7));
+
+        Producto imported = Producto.findByNombre("Importado 01");
+        assertNotNull(imported);
+        assertEquals("Descripcion, con coma", imported.description);
+        assertTrue(imported.isActive);
+        assertEquals(1, StockMovement.count("producto.id = ?1 and quantityChange = 10", imported.id));
+
+        String ndjson = """
+                {"name":"Importado 10","description":"Desde NDJSON","category":"Accessories","price":10.0,"cost":5.0,"profit":5.0,"quantity":3,"minimumStock":1}
+                {"name":"Importado 11","description":"Desde NDJSON","category":"Accessories","price":10.0,"cost":5.0,"profit":5.0,"quantity":0,"minimumStock":1}
+                no es json
+                """;
+        given()
+                .contentType("application/x-ndjson")
+                .body(ndjson)
+                .when()
+                .post("/productos/import")
+                .then()
+                .statusCode(200)
+                .body("received", equalTo(3))
+                .body("imported", equalTo(1))
+                .body("rejected", equalTo(2));
+
+        assertEquals(19, Producto.count("isActive = true"));
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("Should import its own CSV export, including quoted multi-line descriptions")
+    void testCsvExportImportRoundTrip() {
+        String description = "Linea uno\nLinea \"dos\", con coma";
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "name", "Producto Multilinea",
+                        "description", description,
+                        "category", "Electronics",
+                        "price", 10.0,
+                        "cost", 5.0,
+                        "profit", 5.0,
+                        "quantity", 3,
+                        "minimumStock", 1))
+                .when()
+                .post("/productos")
+                .then()
+                .statusCode(200);
+
+        String csv = given()
+                .queryParam("format", "csv")
+                .when()
+                .get("/productos/export")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            StockMovement.deleteAll();
+            Producto.deleteAll();
+        });
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/productos/import")
+                .then()
+                .statusCode(200)
+                .body("received", equalTo(16))
+                .body("imported", equalTo(16))
+                .body("rejected", equalTo(0));
+
+        Producto imported = Producto.findByNombre("Producto Multilinea");
+        assertNotNull(imported);
+        assertEquals(description, imported.description);
+    }
+
+    @Test
+    @Order(37)
+    @DisplayName("Should let the frontend origin send conditional headers and read the ETag")
+    void testCorsConditionalHeaders() {
+        given()
+                .header("Origin", "http://localhost:5173")
+                .header("Access-Control-Request-Method", "PUT")
+                .header("Access-Control-Request-Headers", "if-match,if-none-match")
+                .when()
+                .options("/productos")
+                .then()
+                .statusCode(200)
+                .header("Access-Control-Allow-Headers", containsStringIgnoringCase("if-match"))
+                .header("Access-Control-Allow-Headers", containsStringIgnoringCase("if-none-match"));
+
+        Producto product = Producto.find("isActive = true").firstResult();
+        given()
+                .header("Origin", "http://localhost:5173")
+                .pathParam("id", product.id)
+                .when()
+                .get("/productos/{id}")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .header("Access-Control-Expose-Headers", containsStringIgnoringCase("etag"));
+    }
+
+    @Test
+    @Order(38)
+    @DisplayName("Should link the stock movement of an If-Match update whose body has no version")
+    void testUpdateQuantityWithoutBodyVersion() {
+        Producto product = Producto.find("isActive = true").firstResult();
+        String etag = given()
+                .pathParam("id", product.id)
+                .when()
+                .get("/productos/{id}")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        long newQuantity = product.quantity + 500;
+
+        // Sin "version" en el cuerpo el producto recibido parece nuevo para Hibernate
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body(String.format(Locale.ROOT, """
+                    {
+                        "id": %d,
+                        "name": "%s",
+                        "description": "%s",
+                        "category": "%s",
+                        "price": %.1f,
+                        "cost": %.1f,
+                        "profit": %.1f,
+                        "quantity": %d,
+                        "minimumStock": %d
+                    }
+                    """, product.id, product.name, product.description, product.category, product.price,
+                        product.cost, product.profit, newQuantity, product.minimumStock))
+                .when()
+                .put("/productos")
+                .then()
+                .statusCode(200)
+                .body("quantity", equalTo((int) newQuantity));
+
+        assertEquals(1, StockMovement.count("producto.id = ?1 and actualQuantity = ?2", product.id, newQuantity));
+        assertEquals(0L, ((Number) em.createNativeQuery("SELECT COUNT(*) FROM stock_movements WHERE producto_id IS NULL")
+                .getSingleResult()).longValue());
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("Should suggest product names by prefix with an ETag")
+    void testSuggest() {
+        productNameIndex.reload();
+
+        Response first = given()
+                .queryParam("q", "producto test 0")
+                .queryParam("limit", 3)
+                .when()
+                .get("/productos/suggest")
+                .then()
+                .statusCode(200)
+                .body("", hasSize(3))
+                .body("name", contains("Producto Test 01", "Producto Test 02", "Producto Test 03"))
+                .body("[0]", not(hasKey("price")))
+                .header("ETag", notNullValue())
+                .extract().response();
+        String etag = first.getHeader("ETag");
+
+        given()
+                .queryParam("q", "producto test 0")
+                .queryParam("limit", 3)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/productos/suggest")
+                .then()
+                .statusCode(304);
+
+        // El ETag sale del contenido: reconstruir el indice, como al reiniciar, no lo cambia
+        productNameIndex.reload();
+        given()
+                .queryParam("q", "producto test 0")
+                .queryParam("limit", 3)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/productos/suggest")
+                .then()
+                .statusCode(304);
+
+        given()
+                .queryParam("q", "inactivo")
+                .when()
+                .get("/productos/suggest")
+                .then()
+                .statusCode(200)
+                .body("", hasSize(0));
+
+        Producto product = Producto.find("name", "Producto Test 01").firstResult();
+        given()
+                .pathParam("id", product.id)
+                .when()
+                .delete("/productos/{id}")
+                .then()
+                .statusCode(200);
+
+        given()
+                .queryParam("q", "producto test 0")
+                .queryParam("limit", 3)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/productos/suggest")
+                .then()
+                .statusCode(200)
+                .body("name", contains("Producto Test 02", "Producto Test 03", "Producto Test 04"))
+                .header("ETag", not(equalTo(etag)));
+
+        given()
+                .queryParam("q", "producto")
+                .queryParam("limit", 500)
+                .when()
+                .get("/productos/suggest")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("Should answer 304 on product reads until the product or catalog changes")
+    void testProductConditionalGet() {
+        Producto product = Producto.find("isActive = true").firstResult();
+        String etag = given()
+                .pathParam("id", product.id)
+                .when()
+                .get("/productos/{id}")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertNotNull(etag);
+
+        given()
+                .pathParam("id", product.id)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/productos/{id}")
+                .then()
+                .statusCode(304);
+
+        String listEtag = given()
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        given()
+                .header("If-None-Match", listEtag)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(304);
+
+        given()
+                .pathParam("id", product.id)
+                .queryParam("quantity", 1)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .then()
+                .statusCode(200);
+
+        given()
+                .pathParam("id", product.id)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/productos/{id}")
+                .then()
+                .statusCode(200)
+                .body("quantity", equalTo((int) (product.quantity + 1)));
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("Should reject updates made against a stale version with 409")
+    void testOptimisticLocking() {
+        Producto product = Producto.find("isActive = true").firstResult();
+        String etag = given()
+                .pathParam("id", product.id)
+                .when()
+                .get("/productos/{id}")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        String updateJson = String.format(Locale.ROOT, """
+            {
+                "id": %d,
+                "name": "%s",
+                "description": "Descripcion editada",
+                "category": "%s",
+                "price": %.1f,
+                "cost": %.1f,
+                "profit": %.1f,
+                "quantity": %d,
+                "minimumStock": %d
+            }
+            """, product.id, product.name, product.category, product.price, product.cost, product.profit,
+                product.quantity, product.minimumStock);
+
+        String newEtag = given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body(updateJson)
+                .when()
+                .put("/productos")
+                .then()
+                .statusCode(200)
+                .body("version", equalTo(product.version.intValue() + 1))
+                .extract().header("ETag");
+        assertNotEquals(etag, newEtag);
+
+        // Un segundo editor que leyo la misma version pierde
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body(updateJson)
+                .when()
+                .put("/productos")
+                .then()
+                .statusCode(409);
+
+        // update-quantity tambien cambia la version
+        given()
+                .pathParam("id", product.id)
+                .queryParam("quantity", 1)
+                .when()
+                .put("/productos/{id}/update-quantity")
+                .then()
+                .statusCode(200);
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", newEtag)
+                .body(updateJson)
+                .when()
+                .put("/productos")
+                .then()
+                .statusCode(409);
+    }
+
     // ================= TESTS FOR PUT /productos/{id}/update-quantity =================
 
     @Test
@@ -395,6 +1073,63 @@ class ProductoControllerTest {
                 .statusCode(404);
     }
 
+    @Test
+    @Order(27)
+    @DisplayName("Should apply a batch of stock movements with per-item results")
+    void testStockMovementBatch() {
+        Producto product = Producto.find("isActive = true AND quantity > minimumStock + 5").firstResult();
+        Producto inactiveProduct = Producto.find("isActive = false").firstResult();
+        assertNotNull(product);
+        assertNotNull(inactiveProduct);
+
+        long excessive = -(product.quantity - product.minimumStock + 10);
+        String batchJson = String.format("""
+            [
+                {"productId": %d, "delta": 4},
+                {"productId": %d, "delta": -2},
+                {"productId": %d, "delta": %d},
+                {"productId": %d, "delta": 1},
+                {"productId": 99999, "delta": 1}
+            ]
+            """, product.id, product.id, product.id, excessive, inactiveProduct.id);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(batchJson)
+                .when()
+                .post("/productos/stock-movements:batch")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(5))
+                .body("status", contains("APPLIED", "APPLIED", "MINIMUM_STOCK_EXCEEDED", "NOT_FOUND", "NOT_FOUND"))
+                .body("[0].quantity", equalTo(Math.toIntExact(product.quantity + 4)))
+                .body("[1].quantity", equalTo(Math.toIntExact(product.quantity + 2)));
+
+        given()
+                .pathParam("id", product.id)
+                .when()
+                .get("/productos/{id}")
+                .then()
+                .statusCode(200)
+                .body("quantity", equalTo(Math.toIntExact(product.quantity + 2)));
+
+        given()
+                .pathParam("id", product.id)
+                .when()
+                .get("/productos/{id}/history")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(2));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("[]")
+                .when()
+                .post("/productos/stock-movements:batch")
+                .then()
+                .statusCode(400);
+    }
+
     // ================= TESTS FOR BUSINESS LOGIC =================
 
     @Test
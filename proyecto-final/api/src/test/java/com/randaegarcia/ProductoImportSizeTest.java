@@ -0,0 +1,70 @@
+package com.randaegarcia;
+
+import com.randaegarcia.domain.model.Producto;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Importa un catalogo de 100k filas con descripciones del largo maximo: el cuerpo pasa de los 10M
+ * que Quarkus acepta por defecto y tiene que entrar por debajo de quarkus.http.limits.max-body-size.
+ */
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductoImportSizeTest {
+    private static final int ROWS = 100_000;
+    private static final int DEFAULT_MAX_BODY_SIZE = 10 * 1024 * 1024;
+
+    @Inject
+    EntityManager em;
+
+    @BeforeAll
+    void setup() {
+        QuarkusTransaction.requiringNew().run(this::clear);
+    }
+
+    @AfterAll
+    void cleanup() {
+        QuarkusTransaction.requiringNew().run(this::clear);
+    }
+
+    private void clear() {
+        em.createNativeQuery("TRUNCATE stock_movements, stock_movement_rollup").executeUpdate();
+        em.createNativeQuery("DELETE FROM producto").executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Should import a 100k-row catalog larger than the default body limit")
+    void testLargeImport() {
+        String description = "D".repeat(100);
+        StringBuilder csv = new StringBuilder("name,description,category,price,cost,profit,quantity,minimumStock\n");
+        for (int i = 1; i <= ROWS; i++) {
+            csv.append("Catalogo ").append(i).append(',')
+                    .append(description)
+                    .append(",Electronics,100.0,50.0,50.0,10,1\n");
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+        assertTrue(body.length > DEFAULT_MAX_BODY_SIZE, "el cuerpo tiene " + body.length + " bytes");
+
+        given()
+                .contentType("text/csv")
+                .body(body)
+                .when()
+                .post("/productos/import")
+                .then()
+                .statusCode(200)
+                .body("received", equalTo(ROWS))
+                .body("imported", equalTo(ROWS))
+                .body("rejected", equalTo(0));
+
+        assertEquals(ROWS, QuarkusTransaction.requiringNew().call(() -> Producto.count("isActive = true")));
+    }
+}
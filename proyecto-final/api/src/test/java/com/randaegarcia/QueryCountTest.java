@@ -0,0 +1,142 @@
+package com.randaegarcia;
+
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import com.randaegarcia.service.DashboardCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Comprueba con las estadisticas de Hibernate que la cantidad de sentencias por peticion no
+ * crece con el volumen de datos (sin N+1 al leer movimientos de inventario).
+ */
+@Slf4j
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class QueryCountTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    DashboardCache dashboardCache;
+
+    private Long productoId;
+
+    @BeforeEach
+    @Transactional
+    void setupTestData() {
+        StockMovement.deleteAll();
+        Producto.deleteAll();
+        dashboardCache.invalidateAll();
+
+        productoId = createProductos(1, 5);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("History statement count should not grow with the number of movements")
+    void testHistoryStatementCountIsConstant() {
+        long small = countStatements(() -> given()
+                .pathParam("id", productoId)
+                .when()
+                .get("/productos/{id}/history")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(5))
+                .body("content[0].producto.name", notNullValue()));
+
+        addData();
+
+        long large = countStatements(() -> given()
+                .pathParam("id", productoId)
+                .when()
+                .get("/productos/{id}/history")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(10))
+                .body("totalElements", equalTo(55)));
+
+        log.info("History statements: {} with 5 movements, {} with 55 movements", small, large);
+        assertEquals(small, large, "History should run the same number of statements regardless of data size");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Dashboard statement count should not grow with products or movements")
+    void testDashboardStatementCountIsConstant() {
+        long small = countStatements(() -> given().get("/dashboard/summary").then().statusCode(200));
+
+        addData();
+        dashboardCache.invalidateAll();
+
+        long large = countStatements(() -> given().get("/dashboard/summary").then().statusCode(200));
+
+        log.info("Dashboard statements: {} before, {} after adding data", small, large);
+        assertEquals(small, large, "Dashboard should run the same number of statements regardless of data size");
+    }
+
+    private void addData() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Producto producto = Producto.findById(productoId);
+            for (int i = 0; i < 50; i++) {
+                createMovement(producto, i);
+            }
+            createProductos(20, 3);
+        });
+    }
+
+    private Long createProductos(int count, int movementsPerProducto) {
+        ProductCategory[] categories = ProductCategory.values();
+        long existing = Producto.count();
+        Producto last = null;
+        for (int i = 0; i < count; i++) {
+            Producto producto = new Producto();
+            producto.name = "Producto Conteo " + (existing + i);
+            producto.description = "Producto para conteo de sentencias";
+            producto.category = categories[i % categories.length];
+            producto.price = 100.0;
+            producto.cost = 50.0;
+            producto.profit = 50.0;
+            producto.quantity = 100L;
+            producto.minimumStock = 0L;
+            producto.isActive = true;
+            producto.persist();
+            for (int m = 0; m < movementsPerProducto; m++) {
+                createMovement(producto, m);
+            }
+            last = producto;
+        }
+        return last.id;
+    }
+
+    private void createMovement(Producto producto, int offset) {
+        StockMovement stockMovement = new StockMovement();
+        stockMovement.producto = producto;
+        stockMovement.date = LocalDateTime.now().minusHours(offset);
+        stockMovement.quantityChange = 1L;
+        stockMovement.actualQuantity = producto.quantity;
+        stockMovement.username = "test-user";
+        stockMovement.persist();
+    }
+
+    private long countStatements(Runnable request) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,146 @@
+package com.randaegarcia;
+
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.Response;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La ruta reactiva debe responder exactamente lo mismo que la bloqueante sobre los mismos datos.
+ */
+@QuarkusTest
+@TestProfile(ReactiveProductoControllerTest.ReactiveReadProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReactiveProductoControllerTest {
+
+    public static class ReactiveReadProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "productos.reactive-read.enabled", "true",
+                    "quarkus.datasource.reactive", "true"
+            );
+        }
+    }
+
+    private Long productId;
+    private Long inactiveId;
+
+    @BeforeEach
+    @Transactional
+    void setupTestData() {
+        StockMovement.deleteAll();
+        Producto.deleteAll();
+
+        ProductCategory[] categories = ProductCategory.values();
+        for (int i = 1; i <= 12; i++) {
+            Producto producto = new Producto();
+            producto.name = "Producto Reactivo " + String.format("%02d", i);
+            producto.description = "Descripcion del producto " + i;
+            producto.category = categories[i % categories.length];
+            producto.price = 50.0 + (i * 25.0);
+            producto.cost = 25.0 + (i * 10.0);
+            producto.profit = producto.price - producto.cost;
+            producto.quantity = 100L;
+            producto.minimumStock = 0L;
+            producto.isActive = i != 12;
+            producto.persist();
+            if (producto.isActive) {
+                productId = producto.id;
+            } else {
+                inactiveId = producto.id;
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Reactive list should match the blocking list, including filters and cursors")
+    void testFindAllMatchesBlocking() {
+        assertSameBody("/productos?page=1&size=4");
+        assertSameBody("/productos?size=5&name=producto%20reactivo%200&minPrice=100&maxPrice=300");
+        assertSameBody("/productos?category=Electronics");
+        assertSameBody("/productos?category=Food");
+
+        String cursor = given().get("/reactive/productos?size=5").then().statusCode(200)
+                .body("content", hasSize(5))
+                .body("totalElements", equalTo(11))
+                .extract().path("nextCursor");
+        assertNotNull(cursor);
+        assertSameBody("/productos?size=5&after=" + cursor);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Reactive list should answer 304 for the current catalog version")
+    void testFindAllConditional() {
+        String etag = given().get("/reactive/productos").then().statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+        assertEquals(etag, given().get("/productos").then().extract().header("ETag"));
+
+        given().header("If-None-Match", etag).get("/reactive/productos").then().statusCode(304);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Reactive findById should match the blocking one and return 204 for inactive products")
+    void testFindById() {
+        assertSameBody("/productos/" + productId);
+
+        String etag = given().get("/reactive/productos/{id}", productId).then().statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+        given().header("If-None-Match", etag).get("/reactive/productos/{id}", productId).then().statusCode(304);
+
+        given().get("/reactive/productos/{id}", inactiveId).then().statusCode(204);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Reactive history should match the blocking history page by page")
+    void testHistory() {
+        for (int i = 0; i < 7; i++) {
+            given().queryParam("quantity", i % 2 == 0 ? 3 : -1)
+                    .put("/productos/{id}/update-quantity", productId)
+                    .then().statusCode(200);
+        }
+
+        assertSameBody("/productos/" + productId + "/history?size=3");
+        assertSameBody("/productos/" + productId + "/history?page=2&size=3");
+        String cursor = given().get("/reactive/productos/{id}/history?size=3", productId).then().statusCode(200)
+                .body("totalElements", equalTo(7))
+                .extract().path("nextCursor");
+        assertSameBody("/productos/" + productId + "/history?size=3&before=" + cursor);
+
+        given().get("/reactive/productos/{id}/history", inactiveId).then().statusCode(404);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Reactive reads should reject a page size below one like the blocking ones")
+    void testInvalidSize() {
+        given().get("/reactive/productos?size=0").then().statusCode(400);
+        given().get("/reactive/productos/{id}/history?size=0", productId).then().statusCode(400);
+        assertSameBody("/productos?size=0");
+        assertSameBody("/productos/" + productId + "/history?size=0");
+    }
+
+    private void assertSameBody(String blockingPath) {
+        Response blocking = given().get(blockingPath);
+        Response reactive = given().get("/reactive" + blockingPath);
+        assertEquals(blocking.statusCode(), reactive.statusCode(), blockingPath);
+        assertEquals(blocking.jsonPath().<Object>get(""), reactive.jsonPath().<Object>get(""), blockingPath);
+    }
+}
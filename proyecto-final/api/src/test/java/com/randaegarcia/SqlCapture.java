@@ -0,0 +1,43 @@
+package com.randaegarcia;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Guarda el SQL que Hibernate envia mientras una prueba lo pide, para analizar con EXPLAIN las
+ * sentencias que generan realmente los servicios y no copias escritas a mano.
+ */
+@ApplicationScoped
+@PersistenceUnitExtension
+public class SqlCapture implements StatementInspector {
+    private static final ConcurrentLinkedQueue<String> captured = new ConcurrentLinkedQueue<>();
+    private static volatile boolean capturing;
+
+    @Override
+    public String inspect(String sql) {
+        if (capturing) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Ejecuta la accion y devuelve las sentencias enviadas mientras corria, desde cualquier hilo.
+     */
+    public static synchronized List<String> during(Runnable action) {
+        captured.clear();
+        capturing = true;
+        try {
+            action.run();
+        } finally {
+            capturing = false;
+        }
+        List<String> statements = List.copyOf(captured);
+        captured.clear();
+        return statements;
+    }
+}
@@ -0,0 +1,119 @@
+package com.randaegarcia;
+
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba de estres de PUT /productos/{id}/update-quantity: muchas peticiones concurrentes
+ * sobre el mismo producto no deben perder actualizaciones ni dejar el stock bajo el minimo.
+ */
+@Slf4j
+@QuarkusTest
+class StockConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 25;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            StockMovement.deleteAll();
+            Producto.deleteAll();
+        });
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent increments on the same product should never lose an update")
+    void testNoLostUpdates() throws Exception {
+        Long id = createProducto(0L, 0L);
+
+        List<Integer> statuses = runConcurrently(id, 1L, THREADS * REQUESTS_PER_THREAD);
+
+        long total = (long) THREADS * REQUESTS_PER_THREAD;
+        assertEquals(total, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(total, quantityOf(id), "Every increment should be applied exactly once");
+        assertEquals(total, StockMovement.count("producto.id = ?1", id), "Every increment should record one movement");
+    }
+
+    @Test
+    @DisplayName("Concurrent decrements should stop exactly at the minimum stock")
+    void testMinimumStockUnderContention() throws Exception {
+        Long id = createProducto(300L, 100L);
+
+        List<Integer> statuses = runConcurrently(id, -1L, THREADS * REQUESTS_PER_THREAD);
+
+        assertEquals(200, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(THREADS * REQUESTS_PER_THREAD - 200, statuses.stream().filter(status -> status == 400).count());
+        assertEquals(100L, quantityOf(id), "Stock should never go below the minimum");
+        assertEquals(200L, StockMovement.count("producto.id = ?1", id));
+    }
+
+    private List<Integer> runConcurrently(Long id, Long delta, int requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return given()
+                        .pathParam("id", id)
+                        .queryParam("quantity", delta)
+                        .when()
+                        .put("/productos/{id}/update-quantity")
+                        .statusCode();
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            statuses.add(future.get(2, TimeUnit.MINUTES));
+        }
+        log.info("{} concurrent updates with delta {} took {} ms",
+                requests, delta, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        return statuses;
+    }
+
+    private Long createProducto(Long quantity, Long minimumStock) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Producto producto = new Producto();
+            producto.name = "Producto Concurrente";
+            producto.description = "Producto para prueba de concurrencia";
+            producto.category = ProductCategory.Electronics;
+            producto.price = 10.0;
+            producto.cost = 5.0;
+            producto.profit = 5.0;
+            producto.quantity = quantity;
+            producto.minimumStock = minimumStock;
+            producto.isActive = true;
+            producto.persist();
+            return producto.id;
+        });
+    }
+
+    private long quantityOf(Long id) {
+        return QuarkusTransaction.requiringNew().call(() -> Producto.<Producto>findById(id).quantity);
+    }
+}
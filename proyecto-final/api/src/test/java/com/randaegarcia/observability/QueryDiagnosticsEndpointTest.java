@@ -0,0 +1,95 @@
+package com.randaegarcia.observability;
+
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.domain.model.StockMovement;
+import com.randaegarcia.service.ProductNameIndex;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Con un maximo de 5 filas, cualquier consulta de Hibernate que devuelva mas falla aunque nadie la
+ * haya instrumentado, salvo las lecturas completas marcadas con {@link QueryDiagnostics#fullRead}.
+ */
+@QuarkusTest
+@TestProfile(QueryDiagnosticsEndpointTest.LowMaxRowsProfile.class)
+class QueryDiagnosticsEndpointTest {
+    private static final int PRODUCTS = 8;
+
+    public static class LowMaxRowsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("diagnostics.max-rows", "5");
+        }
+    }
+
+    @Inject
+    QueryDiagnostics queryDiagnostics;
+
+    @Inject
+    ProductNameIndex productNameIndex;
+
+    @BeforeEach
+    @Transactional
+    void setupTestData() {
+        StockMovement.deleteAll();
+        Producto.deleteAll();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            Producto producto = new Producto();
+            producto.name = "Producto Diagnostico " + i;
+            producto.description = "Producto para el diagnostico de consultas";
+            producto.category = ProductCategory.Electronics;
+            producto.price = 10.0;
+            producto.cost = 5.0;
+            producto.profit = 5.0;
+            producto.quantity = 10L;
+            producto.minimumStock = 0L;
+            producto.isActive = true;
+            producto.persist();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail a listing that returns more rows than the maximum")
+    void testOverThresholdEndpoint() {
+        long violations = queryDiagnostics.violations();
+
+        given().queryParam("size", 3).when().get("/productos").then().statusCode(200);
+        assertEquals(violations, queryDiagnostics.violations());
+
+        given()
+                .queryParam("size", PRODUCTS)
+                .when()
+                .get("/productos")
+                .then()
+                .statusCode(500)
+                .body(containsString("devolvio " + PRODUCTS + " filas"));
+        assertTrue(queryDiagnostics.violations() > violations);
+    }
+
+    @Test
+    @DisplayName("Should check queries that no service instruments and skip intentional full reads")
+    void testEveryQueryChecked() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> QuarkusTransaction.requiringNew().run(() -> Producto.listAll()));
+        assertTrue(exception.getMessage().contains("devolvio " + PRODUCTS + " filas"), exception.getMessage());
+
+        long violations = queryDiagnostics.violations();
+        assertDoesNotThrow(() -> productNameIndex.reload());
+        assertEquals(PRODUCTS, productNameIndex.search("producto diagnostico", 50).size());
+        assertEquals(violations, queryDiagnostics.violations());
+    }
+}
@@ -0,0 +1,67 @@
+package com.randaegarcia.observability;
+
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryDiagnosticsTest {
+
+    private QueryDiagnostics diagnostics;
+
+    @BeforeEach
+    void setup() {
+        diagnostics = new QueryDiagnostics();
+        diagnostics.openTelemetry = OpenTelemetry.noop();
+        diagnostics.maxRows = 100;
+        diagnostics.slowThreshold = Duration.ofMillis(50);
+        diagnostics.init();
+    }
+
+    @Test
+    @DisplayName("Should count queries and calls that exceed the row and latency thresholds")
+    void testThresholds() {
+        diagnostics.checkRows("producto.findAll", 100);
+        diagnostics.checkCall("ProductoService", "findAll", Duration.ofMillis(10).toNanos(), 20);
+        assertEquals(0, diagnostics.violations());
+
+        diagnostics.checkRows("producto.findAll", 101);
+        diagnostics.checkCall("ProductoService", "findAll", Duration.ofMillis(60).toNanos(), 500);
+        assertEquals(3, diagnostics.violations());
+    }
+
+    @Test
+    @DisplayName("Should fail full scans but only log slow calls when fail-on-violation is enabled")
+    void testFailOnViolation() {
+        diagnostics.failOnViolation = true;
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> diagnostics.checkRows("dashboard.summary", 1000));
+        assertTrue(exception.getMessage().contains("QueryDiagnosticsTest"));
+        assertThrows(IllegalStateException.class,
+                () -> diagnostics.checkCall("DashboardService", "summary", 0, 1000));
+
+        assertDoesNotThrow(() -> diagnostics.checkCall("DashboardService", "summary", Duration.ofSeconds(1).toNanos(), 0));
+        assertEquals(3, diagnostics.violations());
+    }
+
+    @Test
+    @DisplayName("Should skip row checks inside a full read but still count slow queries")
+    void testFullRead() {
+        diagnostics.failOnViolation = true;
+
+        assertDoesNotThrow(() -> diagnostics.fullRead(() -> {
+            diagnostics.checkQuery("select id, name from Producto", 1000, 10);
+            return null;
+        }));
+        assertEquals(0, diagnostics.violations());
+
+        diagnostics.checkQuery("select p from Producto p", 10, 60);
+        assertEquals(1, diagnostics.violations());
+        assertThrows(IllegalStateException.class, () -> diagnostics.checkQuery("select p from Producto p", 1000, 10));
+    }
+}
@@ -0,0 +1,137 @@
+package com.randaegarcia.observability;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lee las metricas de {@link ServiceMetrics} con un lector en memoria que reemplaza al
+ * OpenTelemetry de Quarkus solo en este perfil.
+ */
+@QuarkusTest
+@TestProfile(ServiceMetricsTest.InMemoryMetricsProfile.class)
+class ServiceMetricsTest {
+    private static final AttributeKey<String> SERVICE = AttributeKey.stringKey("service");
+    private static final AttributeKey<String> METHOD = AttributeKey.stringKey("method");
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> SOURCE = AttributeKey.stringKey("source");
+
+    public static class InMemoryMetricsProfile implements QuarkusTestProfile {
+        @Override
+        public Set<Class<?>> getEnabledAlternatives() {
+            return Set.of(InMemoryOpenTelemetry.class);
+        }
+    }
+
+    @Alternative
+    @Singleton
+    public static class InMemoryOpenTelemetry {
+        static final InMemoryMetricReader READER = InMemoryMetricReader.create();
+
+        @Produces
+        @Singleton
+        OpenTelemetry openTelemetry() {
+            return OpenTelemetrySdk.builder()
+                    .setMeterProvider(SdkMeterProvider.builder().registerMetricReader(READER).build())
+                    .build();
+        }
+    }
+
+    @Inject
+    ServiceMetrics serviceMetrics;
+
+    @Test
+    @DisplayName("Should record service duration per method and outcome")
+    void testServiceDuration() {
+        Attributes ok = Attributes.of(SERVICE, "ProductoService", METHOD, "findAll", OUTCOME, "ok");
+        Attributes failed = Attributes.of(SERVICE, "ProductoService", METHOD, "findAll", OUTCOME, "GeneralException");
+        long okBefore = histogramCount("app.service.duration", ok);
+        long failedBefore = histogramCount("app.service.duration", failed);
+
+        given().when().get("/productos").then().statusCode(200);
+        given().queryParam("size", 0).when().get("/productos").then().statusCode(400);
+
+        assertTrue(histogramCount("app.service.duration", ok) > okBefore);
+        assertEquals(failedBefore + 1, histogramCount("app.service.duration", failed));
+    }
+
+    @Test
+    @DisplayName("Should count stock movements only when the transaction commits")
+    void testStockMovementsWritten() {
+        long created = counterValue("app.stock_movements.written", Attributes.of(SOURCE, "create"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "name": "Producto Metricas %d",
+                            "description": "Producto para las metricas",
+                            "category": "Electronics",
+                            "price": 20.0,
+                            "cost": 10.0,
+                            "profit": 10.0,
+                            "quantity": 5,
+                            "minimumStock": 0
+                        }
+                        """.formatted(System.nanoTime()))
+                .when()
+                .post("/productos")
+                .then()
+                .statusCode(200);
+        assertEquals(created + 1, counterValue("app.stock_movements.written", Attributes.of(SOURCE, "create")));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            serviceMetrics.stockMovementsWritten("rollback-test", 5);
+            QuarkusTransaction.setRollbackOnly();
+        });
+        assertEquals(0, counterValue("app.stock_movements.written", Attributes.of(SOURCE, "rollback-test")));
+
+        QuarkusTransaction.requiringNew().run(() -> serviceMetrics.stockMovementsWritten("commit-test", 5));
+        assertEquals(5, counterValue("app.stock_movements.written", Attributes.of(SOURCE, "commit-test")));
+    }
+
+    private static long histogramCount(String name, Attributes attributes) {
+        return points(name, attributes)
+                .mapToLong(point -> ((HistogramPointData) point).getCount())
+                .sum();
+    }
+
+    private static long counterValue(String name, Attributes attributes) {
+        return points(name, attributes)
+                .mapToLong(point -> ((LongPointData) point).getValue())
+                .sum();
+    }
+
+    /**
+     * Un instrumento sin mediciones todavia no aparece en la lectura, asi que no tiene puntos.
+     */
+    private static Stream<? extends PointData> points(String name, Attributes attributes) {
+        return InMemoryOpenTelemetry.READER.collectAllMetrics().stream()
+                .filter(metric -> metric.getName().equals(name))
+                .flatMap(metric -> metric.getData().getPoints().stream())
+                .filter(point -> point.getAttributes().equals(attributes));
+    }
+}
@@ -0,0 +1,74 @@
+package com.randaegarcia.service;
+
+import com.randaegarcia.domain.dto.ProductNameDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductNameIndexTest {
+
+    private ProductNameIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new ProductNameIndex();
+        index.put(1L, "Teclado Mecanico");
+        index.put(2L, "teclado inalambrico");
+        index.put(3L, "Televisor");
+        index.put(4L, "Mouse");
+    }
+
+    @Test
+    @DisplayName("Should return case-insensitive prefix matches ordered by name and limited")
+    void testSearch() {
+        assertEquals(List.of(new ProductNameDto(2L, "teclado inalambrico"), new ProductNameDto(1L, "Teclado Mecanico")),
+                index.search("TECLADO", 10));
+        assertEquals(3, index.search("te", 10).size());
+        assertEquals(List.of(new ProductNameDto(2L, "teclado inalambrico")), index.search("te", 1));
+        assertTrue(index.search("z", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should move renamed products and drop removed ones")
+    void testPutAndRemove() {
+        index.put(4L, "Teclado Gamer");
+        index.remove(3L);
+
+        assertEquals(List.of(new ProductNameDto(4L, "Teclado Gamer"), new ProductNameDto(2L, "teclado inalambrico"),
+                new ProductNameDto(1L, "Teclado Mecanico")), index.search("te", 10));
+        assertTrue(index.search("mouse", 10).isEmpty());
+
+        index.remove(3L);
+        assertEquals(3, index.search("te", 10).size());
+    }
+
+    @Test
+    @DisplayName("Should keep a single entry per product when the same product is renamed concurrently")
+    void testConcurrentRenames() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> renames = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                String name = "Teclado " + i;
+                renames.add(executor.submit(() -> index.put(1L, name)));
+            }
+            for (Future<?> rename : renames) {
+                rename.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ProductNameDto> teclados = index.search("teclado ", 10);
+        assertEquals(2, teclados.size(), "Expected one entry for product 1 and one for product 2 but was " + teclados);
+        assertEquals(1, teclados.stream().filter(producto -> producto.id() == 1L).count());
+    }
+}
@@ -0,0 +1,53 @@
+package com.randaegarcia.benchmarks;
+
+import com.randaegarcia.domain.dto.ProductNameDto;
+import com.randaegarcia.domain.model.Producto;
+import com.randaegarcia.service.ProductNameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busqueda por prefijo de nombre, que es el filtro de findAll/suggest que se resuelve en memoria:
+ * el indice ordenado contra recorrer la lista como hacia el filtro anterior con JPAStreamer.
+ * El resto de findAll (precio, categoria, paginado) se ejecuta en Postgres y no se mide aqui.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductNameSearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    @Param({"te", "teclado 1a"})
+    String prefix;
+
+    private List<Producto> productos;
+    private ProductNameIndex index;
+
+    @Setup
+    public void setup() {
+        productos = SyntheticData.productos(rows);
+        index = new ProductNameIndex();
+        productos.forEach(producto -> index.put(producto.id, producto.name));
+    }
+
+    @Benchmark
+    public List<ProductNameDto> sortedIndex() {
+        return index.search(prefix, 10);
+    }
+
+    @Benchmark
+    public List<ProductNameDto> linearScan() {
+        return productos.stream()
+                .filter(producto -> producto.name.toLowerCase().startsWith(prefix))
+                .limit(10)
+                .map(producto -> new ProductNameDto(producto.id, producto.name))
+                .toList();
+    }
+}
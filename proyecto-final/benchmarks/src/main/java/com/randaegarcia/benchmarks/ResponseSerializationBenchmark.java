@@ -0,0 +1,52 @@
+package com.randaegarcia.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randaegarcia.domain.dto.PaginatedResponse;
+import com.randaegarcia.domain.model.Producto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armado y serializacion con Jackson de las respuestas de productos. La serializacion escribe a un
+ * stream nulo para medir solo Jackson y no la copia del arreglo de bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Producto> productos;
+    private List<Producto> page;
+
+    @Setup
+    public void setup() {
+        productos = SyntheticData.productos(rows);
+        page = productos.subList(0, 10);
+    }
+
+    @Benchmark
+    public PaginatedResponse<Producto> paginatedResponseOf() {
+        return PaginatedResponse.of(page, 3, page.size(), rows, "31");
+    }
+
+    @Benchmark
+    public void serializePage() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), PaginatedResponse.of(page, 0, page.size(), rows));
+    }
+
+    @Benchmark
+    public void serializeAll() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), productos);
+    }
+}
@@ -0,0 +1,54 @@
+package com.randaegarcia.benchmarks;
+
+import com.randaegarcia.security.CustomRevisionListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por revision de resolver el username en {@link CustomRevisionListener}.
+ * <ul>
+ *     <li>{@code decodePerRevision}: comportamiento anterior, split + Base64 + readTree en cada revision.</li>
+ *     <li>{@code cachedToken}: fallback actual, el token ya se decodifico en una revision previa.</li>
+ * </ul>
+ * El camino principal (leer el principal del SecurityIdentity) no requiere decodificar nada y
+ * necesita el contenedor de Quarkus, por eso no se mide aqui.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevisionListenerBenchmark {
+
+    private CustomRevisionListener listener;
+    private String token;
+
+    @Setup
+    public void setup() {
+        listener = new CustomRevisionListener();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString("""
+                {"exp":1760000000,"iat":1759999700,"iss":"http://localhost:8180/realms/quarkus",
+                 "sub":"5f1c2a9e-8d0b-4c1e-9a57-3b0f6d2e7c11","typ":"Bearer","azp":"backend-service",
+                 "realm_access":{"roles":["admin","user"]},"email":"admin@example.com",
+                 "preferred_username":"admin"}
+                """.getBytes(StandardCharsets.UTF_8));
+        token = header + "." + payload + "." + encoder.encodeToString(new byte[256]);
+        listener.usernameFromToken(token);
+    }
+
+    @Benchmark
+    public String decodePerRevision() {
+        return listener.extractUsernameFromJwt(token);
+    }
+
+    @Benchmark
+    public String cachedToken() {
+        return listener.usernameFromToken(token);
+    }
+}
@@ -0,0 +1,58 @@
+package com.randaegarcia.benchmarks;
+
+import com.randaegarcia.domain.model.ProductCategory;
+import com.randaegarcia.domain.model.Producto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos sinteticos con semilla fija para que todas las corridas midan lo mismo.
+ */
+public final class SyntheticData {
+    private static final ProductCategory[] CATEGORIES = ProductCategory.values();
+    private static final String[] WORDS = {"Teclado", "Mouse", "Monitor", "Camisa", "Pesa", "Reloj", "Banda", "Audifono"};
+
+    private SyntheticData() {
+    }
+
+    public static List<Producto> productos(int count) {
+        Random random = new Random(42);
+        List<Producto> productos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Producto producto = new Producto();
+            producto.id = (long) i + 1;
+            producto.name = name(random, i);
+            producto.description = "Descripcion del producto " + i;
+            producto.category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            producto.price = 10.0 + random.nextInt(1000);
+            producto.cost = producto.price / 2;
+            producto.profit = producto.price - producto.cost;
+            producto.quantity = (long) random.nextInt(500);
+            producto.minimumStock = (long) random.nextInt(10);
+            producto.isActive = true;
+            producto.version = 0L;
+            productos.add(producto);
+        }
+        return productos;
+    }
+
+    /**
+     * Filas (id, nombre, categoria, dia ISO, movimientos) como las que devuelve el rollup.
+     */
+    public static List<Object[]> rollupRows(int count) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = i / 7 + 1;
+            rows.add(new Object[]{id, "Producto " + id, CATEGORIES[(int) (id % CATEGORIES.length)].name(),
+                    (short) (i % 7 + 1), (long) random.nextInt(100) + 1});
+        }
+        return rows;
+    }
+
+    public static String name(Random random, int i) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + Integer.toString(i, 36);
+    }
+}
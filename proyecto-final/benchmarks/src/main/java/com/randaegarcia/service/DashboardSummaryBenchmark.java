@@ -0,0 +1,36 @@
+package com.randaegarcia.service;
+
+import com.randaegarcia.benchmarks.SyntheticData;
+import com.randaegarcia.domain.dto.DashboardSummaryDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregacion en una pasada de {@link DashboardService#summarize} sobre filas del rollup. Esta en el
+ * paquete del servicio porque summarize es package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardSummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    private List<Object[]> rollup;
+
+    @Setup
+    public void setup() {
+        rollup = SyntheticData.rollupRows(rows);
+    }
+
+    @Benchmark
+    public DashboardSummaryDto summarize() {
+        return DashboardService.summarize(rollup);
+    }
+}